@@ -1,7 +1,9 @@
 plugins {
     java
+    `java-test-fixtures`
     id("org.springframework.boot") version "3.4.5"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.mmazurovsky"
@@ -21,6 +23,7 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 
@@ -37,6 +40,7 @@ dependencies {
     implementation("org.slf4j:slf4j-api")
     // Testing
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testImplementation("io.projectreactor:reactor-test")
     // Other
     implementation("io.netty:netty-resolver-dns-native-macos:4.1.107.Final:osx-aarch_64")
     implementation("org.jetbrains:annotations:24.1.0")
@@ -45,3 +49,39 @@ dependencies {
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// Load generator in src/loadtest, run against an embedded GitHub stand-in from src/testFixtures
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadtest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[loadtest.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "loadtestImplementation"(testFixtures(project))
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
+    jmhImplementation(testFixtures(project))
+}
+
+// `./gradlew loadTest -PloadTestArgs="--rate=50 --duration=60s"`; see LoadTestRunner for all options
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Replays a query mix against /api/search and reports latency percentiles and throughput."
+    classpath = loadtest.runtimeClasspath
+    mainClass = "com.mmazurovsky.githubreposobserver.loadtest.LoadTestRunner"
+    javaLauncher = javaToolchains.launcherFor(java.toolchain)
+    (findProperty("loadTestArgs") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
+
+// Benchmarks live in src/jmh; `./gradlew jmh` runs them all, `-PjmhIncludes=<regex>` narrows the run
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    (findProperty("jmhIncludes") as String?)?.let { includes = listOf(it) }
+}
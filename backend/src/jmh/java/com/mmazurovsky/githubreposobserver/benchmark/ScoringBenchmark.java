@@ -0,0 +1,58 @@
+package com.mmazurovsky.githubreposobserver.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.service.ScoringServiceImpl;
+import com.mmazurovsky.githubreposobserver.standin.SyntheticRepositories;
+
+/**
+ * {@link ScoringServiceImpl#convertAndEnrichWithScoreMany} from a single page up to deep-search sizes, and
+ * the top-20 selection behind {@code limit}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoringBenchmark {
+
+    @Param({"100", "500", "10000", "100000"})
+    private int repositories;
+
+    private ScoringServiceImpl scoringService;
+    private GithubRepositorySearchResults searchResults;
+
+    @Setup
+    public void setUp() {
+        scoringService = new ScoringServiceImpl();
+        List<GithubRepositoryItemResponse> items = SyntheticRepositories.repositories(repositories, 42);
+        searchResults = new GithubRepositorySearchResults(
+                items.stream().mapToInt(GithubRepositoryItemResponse::stargazersCount).min().orElse(0),
+                items.stream().mapToInt(GithubRepositoryItemResponse::stargazersCount).max().orElse(0),
+                items.stream().mapToInt(GithubRepositoryItemResponse::forksCount).min().orElse(0),
+                items.stream().mapToInt(GithubRepositoryItemResponse::forksCount).max().orElse(0),
+                items
+        );
+    }
+
+    @Benchmark
+    public List<RepositoriesSearchOut> score() {
+        return scoringService.convertAndEnrichWithScoreMany(searchResults);
+    }
+
+    @Benchmark
+    public List<RepositoriesSearchOut> scoreTop20() {
+        return scoringService.convertAndEnrichWithScoreTop(searchResults, 20);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mmazurovsky.githubreposobserver.benchmark;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+import com.mmazurovsky.githubreposobserver.service.NormalizationStatsServiceImpl;
+import com.mmazurovsky.githubreposobserver.service.ScoringServiceImpl;
+import com.mmazurovsky.githubreposobserver.service.SearchServiceImpl;
+import com.mmazurovsky.githubreposobserver.standin.SyntheticRepositories;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link SearchServiceImpl} plus scoring end to end against a zero-latency {@link GithubClient} stub,
+ * so the numbers are the pipeline's own overhead: fan-out, stats resolution, merging and scoring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchPipelineBenchmark {
+    private static final int RESULTS_PER_PAGE = 100;
+
+    @Param({"1", "5"})
+    private int maxPages;
+
+    private SearchServiceImpl searchService;
+    private ScoringServiceImpl scoringService;
+    private RepositoriesSearchIn request;
+
+    @Setup
+    public void setUp() {
+        GithubRepositorySearchResponse[] pages = new GithubRepositorySearchResponse[maxPages + 1];
+        for (int page = 1; page <= maxPages; page++) {
+            pages[page] = new GithubRepositorySearchResponse(
+                    10_000, false, SyntheticRepositories.repositories(RESULTS_PER_PAGE, page));
+        }
+        // per_page=1 lookups answer with the first page's extreme for the requested order
+        List<GithubRepositoryItemResponse> byStars = pages[1].items().stream()
+                .sorted(Comparator.comparingInt(GithubRepositoryItemResponse::stargazersCount))
+                .toList();
+        GithubRepositorySearchResponse lowest = new GithubRepositorySearchResponse(10_000, false, byStars.subList(0, 1));
+        GithubRepositorySearchResponse highest = new GithubRepositorySearchResponse(
+                10_000, false, byStars.subList(byStars.size() - 1, byStars.size()));
+        GithubClient githubClient = (searchRequest, filter, page, perPage, sort, order) -> Mono.just(
+                perPage == 1 ? ("asc".equals(order) ? lowest : highest) : pages[page]);
+
+        // Zero stats-cache TTL keeps the per_page=1 normalization lookups on the measured path
+        SearchMetrics metrics = new SearchMetrics(new SimpleMeterRegistry());
+        MappedSearchSnapshotStore noStore = new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1));
+        searchService = new SearchServiceImpl(
+                githubClient, new NormalizationStatsServiceImpl(githubClient, metrics, noStore, Duration.ZERO, 1), metrics, true);
+        scoringService = new ScoringServiceImpl();
+        request = new RepositoriesSearchIn("benchmark", null, null, maxPages, null);
+    }
+
+    @Benchmark
+    public List<RepositoriesSearchOut> searchAndScore() {
+        return searchService.searchRepositories(request)
+                .map(scoringService::convertAndEnrichWithScoreMany)
+                .block();
+    }
+}
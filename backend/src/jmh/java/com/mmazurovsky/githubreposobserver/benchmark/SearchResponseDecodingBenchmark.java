@@ -0,0 +1,68 @@
+package com.mmazurovsky.githubreposobserver.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmazurovsky.githubreposobserver.client.GithubSearchResponseDecoder;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.standin.SyntheticRepositories;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Decoding one full 100-item search page: Jackson databind over the aggregated body versus the
+ * field-projecting {@link GithubSearchResponseDecoder} fed network-sized chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchResponseDecodingBenchmark {
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(GithubRepositorySearchResponse.class);
+
+    private byte[] page;
+    private ObjectMapper objectMapper;
+    private GithubSearchResponseDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        page = SyntheticRepositories.searchPageJson(1_000, false, SyntheticRepositories.repositories(100, 7))
+                .getBytes(StandardCharsets.UTF_8);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        decoder = new GithubSearchResponseDecoder();
+    }
+
+    @Benchmark
+    public GithubRepositorySearchResponse databind() throws Exception {
+        return objectMapper.readValue(page, GithubRepositorySearchResponse.class);
+    }
+
+    @Benchmark
+    public GithubRepositorySearchResponse projectingDecoder() {
+        return decoder.decodeToMono(chunks(), RESPONSE_TYPE, MediaType.APPLICATION_JSON, null).block();
+    }
+
+    private Flux<DataBuffer> chunks() {
+        return Flux.range(0, (page.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(index -> {
+                    int offset = index * CHUNK_SIZE;
+                    int length = Math.min(CHUNK_SIZE, page.length - offset);
+                    return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(page, offset, length));
+                });
+    }
+}
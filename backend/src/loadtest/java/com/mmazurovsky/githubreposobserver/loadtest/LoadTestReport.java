@@ -0,0 +1,35 @@
+package com.mmazurovsky.githubreposobserver.loadtest;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcome of one measured load-test phase. Latencies are in microseconds and measured from each request's
+ * scheduled start, so queueing behind a slow server is included rather than hidden (no coordinated omission).
+ */
+record LoadTestReport(Histogram latencyMicros, Map<Integer, Long> responsesByStatus, long failures, Duration elapsed) {
+
+    double throughputPerSecond() {
+        return latencyMicros.getTotalCount() / (elapsed.toNanos() / 1e9);
+    }
+
+    void print(PrintStream out) {
+        out.println();
+        out.println("📈 Load test results");
+        out.printf("  requests:    %d in %.1f s (%.1f req/s)%n",
+                latencyMicros.getTotalCount(), elapsed.toNanos() / 1e9, throughputPerSecond());
+        out.printf("  statuses:    %s, transport failures: %d%n", new TreeMap<>(responsesByStatus), failures);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            out.printf("  p%-10s %8.1f ms%n", format(percentile) + ":", latencyMicros.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf("  %-11s %8.1f ms%n", "max:", latencyMicros.getMaxValue() / 1000.0);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
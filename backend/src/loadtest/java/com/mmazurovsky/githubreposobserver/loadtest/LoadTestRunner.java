@@ -0,0 +1,111 @@
+package com.mmazurovsky.githubreposobserver.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.mmazurovsky.githubreposobserver.GithubReposObserverApplication;
+import com.mmazurovsky.githubreposobserver.standin.GithubApiStandIn;
+import com.mmazurovsky.githubreposobserver.standin.LatencyDistribution;
+import com.mmazurovsky.githubreposobserver.standin.StandInSettings;
+
+/**
+ * Entry point of {@code ./gradlew loadTest}. Without {@code --target} it starts a {@link GithubApiStandIn}
+ * and the service in-process, pointed at each other, so the whole run is offline; with
+ * {@code --target=http://host:port} it only drives an already running service.
+ *
+ * <p>Options ({@code --name=value}): {@code rate} (requests/s, default 20), {@code duration} (30s),
+ * {@code warmup} (5s), {@code timeout} (60s), {@code queries} (distinct searches, 200), {@code zipf} (1.0),
+ * {@code seed} (42), and for the stand-in {@code latency-median} (80ms), {@code latency-p99} (400ms),
+ * {@code forbidden-rate}, {@code unprocessable-rate}, {@code server-error-rate} (0), {@code rate-limit}
+ * (requests per token per window, 5000), {@code rate-limit-window} (60s), {@code tokens} (4) and
+ * {@code max-total-count} (5000).
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parseOptions(args);
+        QueryMix queryMix = QueryMix.zipf(
+                intOption(options, "queries", 200), doubleOption(options, "zipf", 1.0), intOption(options, "seed", 42));
+        double rate = doubleOption(options, "rate", 20);
+        Duration duration = durationOption(options, "duration", "30s");
+        Duration warmup = durationOption(options, "warmup", "5s");
+        Duration timeout = durationOption(options, "timeout", "60s");
+
+        String target = options.get("target");
+        if (target != null) {
+            run(target, queryMix, rate, warmup, duration, timeout);
+            return;
+        }
+
+        StandInSettings settings = StandInSettings.defaults()
+                .withMaxTotalCount(intOption(options, "max-total-count", 5_000))
+                .withLatency(new LatencyDistribution(
+                        durationOption(options, "latency-median", "80ms"), durationOption(options, "latency-p99", "400ms")))
+                .withErrorRates(
+                        doubleOption(options, "forbidden-rate", 0),
+                        doubleOption(options, "unprocessable-rate", 0),
+                        doubleOption(options, "server-error-rate", 0))
+                .withRateLimit(intOption(options, "rate-limit", 5_000), durationOption(options, "rate-limit-window", "60s"));
+        String tokens = IntStream.rangeClosed(1, intOption(options, "tokens", 4))
+                .mapToObj(index -> "load-test-token-" + index)
+                .collect(Collectors.joining(","));
+
+        try (GithubApiStandIn standIn = GithubApiStandIn.start(settings);
+             ConfigurableApplicationContext service = SpringApplication.run(GithubReposObserverApplication.class,
+                     "--server.port=0",
+                     "--github.api.base-url=" + standIn.baseUrl(),
+                     "--github.api.token=",
+                     "--github.api.tokens=" + tokens,
+                     "--logging.level.root=WARN",
+                     "--logging.level.com.mmazurovsky.githubreposobserver=WARN")) {
+            System.out.println("🧪 GitHub stand-in at " + standIn.baseUrl() + " with " + settings);
+            run("http://localhost:" + service.getEnvironment().getProperty("local.server.port"),
+                    queryMix, rate, warmup, duration, timeout);
+            System.out.println("  stand-in:    " + standIn.requestCount() + " GitHub requests, "
+                    + standIn.responseCount(200) + " x 200, " + standIn.responseCount(304) + " x 304");
+        }
+    }
+
+    private static void run(String target, QueryMix queryMix, double rate, Duration warmup, Duration duration, Duration timeout) {
+        SearchLoadGenerator generator = new SearchLoadGenerator(target, queryMix);
+        System.out.printf("🚀 Driving %s at %.1f req/s over %d distinct queries (warmup %s, measured %s)%n",
+                target, rate, queryMix.size(), warmup, duration);
+        if (!warmup.isZero()) {
+            generator.run(rate, warmup, timeout, 1);
+        }
+        generator.run(rate, duration, timeout, 2).print(System.out);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int fallback) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : fallback;
+    }
+
+    private static double doubleOption(Map<String, String> options, String name, double fallback) {
+        return options.containsKey(name) ? Double.parseDouble(options.get(name)) : fallback;
+    }
+
+    private static Duration durationOption(Map<String, String> options, String name, String fallback) {
+        return DurationStyle.detectAndParse(options.getOrDefault(name, fallback));
+    }
+}
@@ -0,0 +1,87 @@
+package com.mmazurovsky.githubreposobserver.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted set of {@code /api/search} query strings. Popularity follows a Zipf distribution, so a few
+ * searches repeat often (exercising caches and coalescing) while the long tail keeps reaching GitHub.
+ */
+final class QueryMix {
+    private static final String[] KEYWORDS = {
+            "spring", "reactive", "kafka", "graphql", "kubernetes", "parser", "http client", "cache", "scheduler",
+            "orm", "logging", "metrics", "json", "cli", "game engine", "compiler", "database", "search", "auth", "bot"
+    };
+    private static final String[] LANGUAGES = {null, "Java", "Kotlin", "Go", "Rust", "TypeScript", "Python"};
+    private static final String[] CREATED_AFTER = {null, "2015-01-01", "2020-01-01", "2023-06-01"};
+
+    private final List<String> queries;
+    private final double[] cumulativeWeights;
+
+    private QueryMix(List<String> queries, double[] cumulativeWeights) {
+        this.queries = queries;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    /**
+     * @param distinctQueries number of distinct searches in the mix
+     * @param exponent        Zipf exponent; 0 is uniform, around 1 is typical of real query logs
+     */
+    static QueryMix zipf(int distinctQueries, double exponent, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> queries = new ArrayList<>(distinctQueries);
+        double[] cumulative = new double[distinctQueries];
+        double total = 0;
+        for (int rank = 0; rank < distinctQueries; rank++) {
+            queries.add(randomQuery(random, rank));
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < distinctQueries; rank++) {
+            cumulative[rank] /= total;
+        }
+        return new QueryMix(List.copyOf(queries), cumulative);
+    }
+
+    String next(RandomGenerator random) {
+        double roll = random.nextDouble();
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] < roll) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return queries.get(low);
+    }
+
+    int size() {
+        return queries.size();
+    }
+
+    private static String randomQuery(SplittableRandom random, int rank) {
+        // The rank suffix keeps every entry distinct even when the random parts collide
+        StringBuilder query = new StringBuilder("keywords=")
+                .append(encode(KEYWORDS[random.nextInt(KEYWORDS.length)] + " " + rank));
+        String language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+        if (language != null) {
+            query.append("&language=").append(language);
+        }
+        String createdAfter = CREATED_AFTER[random.nextInt(CREATED_AFTER.length)];
+        if (createdAfter != null) {
+            query.append("&earliestCreatedDate=").append(createdAfter);
+        }
+        return query.append("&maxPages=").append(1 + random.nextInt(5)).toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
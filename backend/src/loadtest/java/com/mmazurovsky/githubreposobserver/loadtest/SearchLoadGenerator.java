@@ -0,0 +1,73 @@
+package com.mmazurovsky.githubreposobserver.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-loop load generator for {@code /api/search}: requests are issued on a fixed schedule regardless of
+ * how fast earlier ones complete, each on its own virtual thread, which is how independent users behave.
+ */
+final class SearchLoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String targetBaseUrl;
+    private final QueryMix queryMix;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    SearchLoadGenerator(String targetBaseUrl, QueryMix queryMix) {
+        this.targetBaseUrl = targetBaseUrl;
+        this.queryMix = queryMix;
+    }
+
+    LoadTestReport run(double requestsPerSecond, Duration duration, Duration requestTimeout, long seed) {
+        Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Map<Integer, Long> statuses = new ConcurrentHashMap<>();
+        AtomicLong failures = new AtomicLong();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long intervalNanos = (long) (1e9 / requestsPerSecond);
+        long requestCount = (long) (duration.toNanos() / (double) intervalNanos);
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requestCount; i++) {
+                long scheduledAt = start + i * intervalNanos;
+                LockSupport.parkNanos(scheduledAt - System.nanoTime());
+                URI uri = URI.create(targetBaseUrl + "/api/search?" + queryMix.next(random));
+                executor.execute(() -> {
+                    try {
+                        HttpResponse<Void> response = httpClient.send(
+                                HttpRequest.newBuilder(uri).timeout(requestTimeout).GET().build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        statuses.merge(response.statusCode(), 1L, Long::sum);
+                    } catch (IOException ex) {
+                        failures.incrementAndGet();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+                    latencies.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                });
+            }
+        }
+        return new LoadTestReport(latencies, Map.copyOf(statuses), failures.get(), Duration.ofNanos(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,89 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+
+/**
+ * Unscored result sets of refreshed searches, the base a delta refresh merges changed repositories into.
+ * Scored results can't serve as one: scores are relative to the whole set. A delta only sees repositories
+ * pushed since the last refresh, not stars or forks gained by others, so a base is only used for
+ * {@code full-every} after the full fetch it started from; the next refresh then fetches everything again.
+ */
+@Component
+public class DeltaRefreshBases {
+
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration overlap;
+    private final Duration fullEvery;
+    private final Cache<SearchCacheKey, Base> bases;
+
+    @Autowired
+    public DeltaRefreshBases(
+            @Value("${search.refresh.delta.enabled:true}") boolean enabled,
+            @Value("${search.refresh.delta.overlap:5m}") Duration overlap,
+            @Value("${search.refresh.delta.full-every:1h}") Duration fullEvery,
+            @Value("${search.refresh.delta.max-entries:64}") long maxEntries
+    ) {
+        this(enabled, overlap, fullEvery, maxEntries, Clock.systemUTC());
+    }
+
+    DeltaRefreshBases(boolean enabled, Duration overlap, Duration fullEvery, long maxEntries, Clock clock) {
+        this.clock = clock;
+        this.enabled = enabled;
+        this.overlap = overlap;
+        this.fullEvery = fullEvery;
+        this.bases = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(fullEvery)
+                .build();
+    }
+
+    /**
+     * The base to refresh from, unless delta refreshes are off or it is due for a full refresh.
+     */
+    public Optional<Base> get(SearchCacheKey key) {
+        Base base = enabled ? bases.getIfPresent(key) : null;
+        if (base == null || !clock.instant().isBefore(base.fullAt().plus(fullEvery))) {
+            return Optional.empty();
+        }
+        return Optional.of(base);
+    }
+
+    /**
+     * Where the next delta should start. GitHub's index trails pushes a little, so it reaches back by
+     * {@code overlap}; repositories seen twice are merged by id anyway.
+     */
+    public Instant since(Base base) {
+        return base.refreshedAt().minus(overlap);
+    }
+
+    /**
+     * Records a result set fetched in full; {@code fetchedAt} is when fetching started.
+     */
+    public void putFull(SearchCacheKey key, GithubRepositorySearchResults results, Instant fetchedAt) {
+        if (enabled) {
+            bases.put(key, new Base(results, fetchedAt, fetchedAt));
+        }
+    }
+
+    public void putDelta(SearchCacheKey key, Base previous, GithubRepositorySearchResults results, Instant fetchedAt) {
+        bases.put(key, new Base(results, fetchedAt, previous.fullAt()));
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public record Base(GithubRepositorySearchResults results, Instant refreshedAt, Instant fullAt) {}
+}
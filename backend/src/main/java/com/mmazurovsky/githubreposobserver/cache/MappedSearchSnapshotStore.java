@@ -0,0 +1,179 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+
+/**
+ * Snapshot store backed by one memory-mapped file in {@link SearchSnapshotFormat}. The file is mapped on
+ * the first lookup and only its keys are indexed; rows are decoded from the mapping when a key is actually
+ * requested. New snapshots are written to a temporary file and renamed over the old one, so a crash
+ * mid-write never leaves a torn snapshot. Entries of the previous snapshot that are no longer in memory
+ * are carried over while they could still be served, so a restart does not lose what nobody asked for in
+ * the first snapshot interval: results until {@code search.cache.ttl}, normalization stats until
+ * {@code search.store.retention}. Disabled when {@code search.store.path} is empty.
+ */
+@Component
+public class MappedSearchSnapshotStore implements SearchSnapshotStore {
+    private static final Logger logger = LoggerFactory.getLogger(MappedSearchSnapshotStore.class);
+
+    private final @Nullable Path path;
+    private final Duration resultTtl;
+    private final Duration retention;
+    private final Object lock = new Object();
+    private volatile @Nullable Snapshot current;
+
+    public MappedSearchSnapshotStore(
+            @Value("${search.store.path:}") String path,
+            @Value("${search.cache.ttl:10m}") Duration resultTtl,
+            @Value("${search.store.retention:1h}") Duration retention
+    ) {
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.resultTtl = resultTtl;
+        this.retention = retention;
+        if (this.path != null) {
+            logger.info("💾 Search snapshot store: path={}, retention={}", this.path.toAbsolutePath(), retention);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    @Override
+    public Optional<Timestamped<List<RepositoriesSearchOut>>> findResults(SearchCacheKey key) {
+        Snapshot snapshot = snapshot();
+        Integer offset = snapshot.index().resultOffsets().get(key);
+        if (offset == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(SearchSnapshotFormat.decodeResults(snapshot.buffer(), offset));
+        } catch (RuntimeException ex) {
+            logger.warn("⚠️ Skipping unreadable snapshot entry for {}: {}", key, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<Timestamped<NormalizationStats>> findStats(NormalizationStatsKey key) {
+        return Optional.ofNullable(snapshot().index().stats().get(key));
+    }
+
+    @Override
+    public void write(
+            Map<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> results,
+            Map<NormalizationStatsKey, Timestamped<NormalizationStats>> stats
+    ) {
+        if (path == null) {
+            return;
+        }
+        synchronized (lock) {
+            Snapshot previous = snapshot();
+            Map<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> mergedResults = new HashMap<>(results);
+            Map<NormalizationStatsKey, Timestamped<NormalizationStats>> mergedStats = new HashMap<>(stats);
+            carryOver(previous, mergedResults, mergedStats);
+
+            byte[] bytes = SearchSnapshotFormat.encode(mergedResults, mergedStats);
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    MappedByteBuffer target = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes.length);
+                    target.put(bytes);
+                    target.force();
+                }
+                moveIntoPlace(temporary);
+                current = load();
+                logger.debug("💾 Wrote search snapshot: {} results, {} stats, {} bytes",
+                        mergedResults.size(), mergedStats.size(), bytes.length);
+            } catch (IOException ex) {
+                logger.warn("⚠️ Failed to write search snapshot to {}: {}", path, ex.getMessage());
+            }
+        }
+    }
+
+    private void carryOver(
+            Snapshot previous,
+            Map<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> results,
+            Map<NormalizationStatsKey, Timestamped<NormalizationStats>> stats
+    ) {
+        for (Map.Entry<SearchCacheKey, Integer> entry : previous.index().resultOffsets().entrySet()) {
+            if (!results.containsKey(entry.getKey())) {
+                findResults(entry.getKey())
+                        .filter(value -> value.isFresh(resultTtl))
+                        .ifPresent(value -> results.put(entry.getKey(), value));
+            }
+        }
+        previous.index().stats().forEach((key, value) -> {
+            if (value.isFresh(retention)) {
+                stats.putIfAbsent(key, value);
+            }
+        });
+    }
+
+    private void moveIntoPlace(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot loaded = current;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (lock) {
+            if (current == null) {
+                current = load();
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return Snapshot.EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed and after the file is replaced
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            SearchSnapshotFormat.Index index = SearchSnapshotFormat.index(mapped);
+            logger.info("💾 Mapped search snapshot: {} results, {} stats",
+                    index.resultOffsets().size(), index.stats().size());
+            return new Snapshot(mapped, index);
+        } catch (IOException | IllegalArgumentException ex) {
+            logger.warn("⚠️ Ignoring unreadable search snapshot {}: {}", path, ex.getMessage());
+            return Snapshot.EMPTY;
+        }
+    }
+
+    // Buffer and index are swapped together: offsets are only meaningful against their own mapping
+    private record Snapshot(ByteBuffer buffer, SearchSnapshotFormat.Index index) {
+        static final Snapshot EMPTY = new Snapshot(ByteBuffer.allocate(0), SearchSnapshotFormat.Index.EMPTY);
+    }
+}
@@ -0,0 +1,22 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.time.LocalDate;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+
+/**
+ * Canonical key of the star/fork normalization bounds. Bounds describe the whole result set, so unlike
+ * {@link SearchCacheKey} they do not depend on {@code maxPages} or {@code limit}.
+ */
+public record NormalizationStatsKey(String keywords, @Nullable String language, @Nullable LocalDate earliestCreatedDate) {
+
+    public static NormalizationStatsKey from(RepositoriesSearchIn request) {
+        return new NormalizationStatsKey(
+                SearchCacheKey.canonicalKeywords(request.keywords()),
+                SearchCacheKey.canonicalLanguage(request.language()),
+                request.earliestCreatedDate()
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mmazurovsky.githubreposobserver.util.SpaceSaving;
+import com.mmazurovsky.githubreposobserver.util.SpaceSaving.HeavyHitter;
+
+/**
+ * How often each search is asked for, tracked in bounded memory with a {@link SpaceSaving} sketch. Counts
+ * are halved every {@code search.refresh.popularity-half-life}, so queries that stop being asked for drop
+ * out instead of holding their place from an old burst.
+ */
+@Component
+public class PopularSearches {
+
+    private final SpaceSaving<SearchCacheKey> sketch;
+
+    public PopularSearches(@Value("${search.refresh.tracked-queries:256}") int trackedQueries) {
+        this.sketch = new SpaceSaving<>(trackedQueries);
+    }
+
+    public void record(SearchCacheKey key) {
+        sketch.offer(key);
+    }
+
+    public List<HeavyHitter<SearchCacheKey>> top(int limit) {
+        return sketch.top(limit);
+    }
+
+    @Scheduled(
+            initialDelayString = "${search.refresh.popularity-half-life:10m}",
+            fixedDelayString = "${search.refresh.popularity-half-life:10m}"
+    )
+    public void decay() {
+        sketch.decay();
+    }
+}
@@ -0,0 +1,53 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.util.Const;
+
+/**
+ * Canonical form of a {@link RepositoriesSearchIn}. GitHub search is case-insensitive for both
+ * keywords and the language qualifier, so requests that differ only in case, surrounding or
+ * repeated whitespace, or an omitted {@code maxPages} resolve to the same key. A {@code limit} yields a
+ * different (truncated) result, so it is part of the key; {@code null} means all repositories.
+ */
+public record SearchCacheKey(
+        String keywords,
+        @Nullable LocalDate earliestCreatedDate,
+        @Nullable String language,
+        int maxPages,
+        @Nullable Integer limit
+) {
+
+    public static SearchCacheKey from(RepositoriesSearchIn request) {
+        return new SearchCacheKey(
+                canonicalKeywords(request.keywords()),
+                request.earliestCreatedDate(),
+                canonicalLanguage(request.language()),
+                request.maxPages() != null ? request.maxPages() : Const.DEFAULT_MAX_PAGES,
+                request.limit()
+        );
+    }
+
+    public SearchCacheKey withLimit(@Nullable Integer limit) {
+        return new SearchCacheKey(keywords, earliestCreatedDate, language, maxPages, limit);
+    }
+
+    /**
+     * A request equivalent to every request that maps to this key.
+     */
+    public RepositoriesSearchIn toRequest() {
+        return new RepositoriesSearchIn(keywords, earliestCreatedDate, language, maxPages, limit);
+    }
+
+    public static String canonicalKeywords(String keywords) {
+        return keywords.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static @Nullable String canonicalLanguage(@Nullable String language) {
+        return language != null ? language.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.cache.CacheStats;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+
+public interface SearchResultsCache {
+    Optional<List<RepositoriesSearchOut>> get(SearchCacheKey key);
+
+    void put(SearchCacheKey key, List<RepositoriesSearchOut> results);
+
+    /**
+     * Time until the in-memory entry for {@code key} expires; empty when there is none. Not counted as a
+     * lookup in {@link #stats()}.
+     */
+    Optional<Duration> remainingTtl(SearchCacheKey key);
+
+    /**
+     * Fresh entries with their original write times, for the snapshot store.
+     */
+    Map<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> snapshot();
+
+    CacheStats stats();
+}
@@ -0,0 +1,118 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+
+/**
+ * In-memory result cache bounded by an estimated byte budget. Entries remember when they were computed,
+ * so when a miss is served from the {@link SearchSnapshotStore} after a restart the TTL still counts
+ * from the original computation rather than from the reload.
+ */
+@Component
+public class SearchResultsCacheImpl implements SearchResultsCache {
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultsCacheImpl.class);
+
+    // Rough JVM footprint used for the byte budget: object headers, references and boxed fields
+    private static final int LIST_OVERHEAD_BYTES = 64;
+    private static final int ROW_OVERHEAD_BYTES = 96;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private final Duration ttl;
+    private final SearchSnapshotStore snapshotStore;
+    private final Cache<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> cache;
+
+    public SearchResultsCacheImpl(
+            @Value("${search.cache.ttl:10m}") Duration ttl,
+            @Value("${search.cache.max-bytes:64MB}") DataSize maxBytes,
+            SearchSnapshotStore snapshotStore
+    ) {
+        this.ttl = ttl;
+        this.snapshotStore = snapshotStore;
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((SearchCacheKey key, Timestamped<List<RepositoriesSearchOut>> entry) -> estimateBytes(key, entry.value()))
+                .recordStats()
+                .build();
+        logger.info("🗄️ Search results cache: ttl={}, maxBytes={}", ttl, maxBytes);
+    }
+
+    @Override
+    public Optional<List<RepositoriesSearchOut>> get(SearchCacheKey key) {
+        Timestamped<List<RepositoriesSearchOut>> entry = cache.getIfPresent(key);
+        if (entry == null && snapshotStore.isEnabled()) {
+            entry = snapshotStore.findResults(key).orElse(null);
+            if (entry != null && entry.isFresh(ttl)) {
+                logger.debug("💾 Search results for {} served from the snapshot store", key);
+                cache.put(key, entry);
+            }
+        }
+        // Entries reloaded from the store expire by their original write time, not by when they were promoted
+        if (entry == null || !entry.isFresh(ttl)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    @Override
+    public void put(SearchCacheKey key, List<RepositoriesSearchOut> results) {
+        // Empty results are usually a 422 fallback or exhausted retries, not a real answer - never pin them
+        if (results.isEmpty()) {
+            return;
+        }
+        cache.put(key, Timestamped.now(List.copyOf(results)));
+    }
+
+    @Override
+    public Optional<Duration> remainingTtl(SearchCacheKey key) {
+        // asMap().get() leaves the hit/miss statistics alone
+        Timestamped<List<RepositoriesSearchOut>> entry = cache.asMap().get(key);
+        if (entry == null || !entry.isFresh(ttl)) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofMillis(entry.writtenAtMillis() + ttl.toMillis() - System.currentTimeMillis()));
+    }
+
+    @Override
+    public Map<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> snapshot() {
+        return cache.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue().isFresh(ttl))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    @Override
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    static int estimateBytes(SearchCacheKey key, List<RepositoriesSearchOut> results) {
+        long bytes = LIST_OVERHEAD_BYTES + stringBytes(key.keywords()) + stringBytes(key.language());
+        for (RepositoriesSearchOut row : results) {
+            bytes += ROW_OVERHEAD_BYTES
+                    + stringBytes(row.name())
+                    + stringBytes(row.url())
+                    + stringBytes(row.language())
+                    + stringBytes(row.recency())
+                    + stringBytes(row.popularityScore());
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+}
@@ -0,0 +1,205 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.util.EpochDays;
+
+/**
+ * Binary layout of a snapshot, big-endian:
+ * <pre>
+ * magic "GRSS", version
+ * result count, then per entry: byte length, key, written-at millis, row count, rows
+ * stats count, then per entry: key, written-at millis, minStars, maxStars, minForks
+ * </pre>
+ * Strings are a byte length ({@code -1} for null) followed by UTF-8, dates are {@link EpochDays}. Result
+ * entries are length-prefixed so an index of keys can be built without decoding any rows.
+ */
+final class SearchSnapshotFormat {
+    private static final int MAGIC = 0x47525353;
+    private static final int VERSION = 1;
+    private static final int NO_LIMIT = -1;
+
+    private SearchSnapshotFormat() {
+    }
+
+    static byte[] encode(
+            Map<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> results,
+            Map<NormalizationStatsKey, Timestamped<NormalizationStats>> stats
+    ) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(results.size());
+            ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+            DataOutputStream entry = new DataOutputStream(entryBytes);
+            for (Map.Entry<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> result : results.entrySet()) {
+                entryBytes.reset();
+                writeResultsEntry(entry, result.getKey(), result.getValue());
+                out.writeInt(entryBytes.size());
+                entryBytes.writeTo(out);
+            }
+
+            out.writeInt(stats.size());
+            for (Map.Entry<NormalizationStatsKey, Timestamped<NormalizationStats>> stat : stats.entrySet()) {
+                NormalizationStatsKey key = stat.getKey();
+                writeString(out, key.keywords());
+                writeString(out, key.language());
+                out.writeInt(epochDay(key.earliestCreatedDate()));
+                out.writeLong(stat.getValue().writtenAtMillis());
+                NormalizationStats value = stat.getValue().value();
+                out.writeInt(value.minStars());
+                out.writeInt(value.maxStars());
+                out.writeInt(value.minForks());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            // In-memory streams only
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Reads the keys of {@code buffer}; result rows stay in the buffer until {@link #decodeResults} is called.
+     */
+    static Index index(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate();
+        try {
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IllegalArgumentException("Not a search snapshot or an unsupported version");
+            }
+
+            int resultCount = in.getInt();
+            Map<SearchCacheKey, Integer> resultOffsets = new HashMap<>(resultCount * 2);
+            for (int i = 0; i < resultCount; i++) {
+                int length = in.getInt();
+                int start = in.position();
+                resultOffsets.put(readResultsKey(in), start);
+                in.position(start + length);
+            }
+
+            int statsCount = in.getInt();
+            Map<NormalizationStatsKey, Timestamped<NormalizationStats>> stats = new HashMap<>(statsCount * 2);
+            for (int i = 0; i < statsCount; i++) {
+                NormalizationStatsKey key = new NormalizationStatsKey(readString(in), readString(in), localDate(in.getInt()));
+                long writtenAt = in.getLong();
+                stats.put(key, new Timestamped<>(new NormalizationStats(in.getInt(), in.getInt(), in.getInt()), writtenAt));
+            }
+            return new Index(resultOffsets, stats);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Truncated search snapshot", ex);
+        }
+    }
+
+    static Timestamped<List<RepositoriesSearchOut>> decodeResults(ByteBuffer buffer, int offset) {
+        ByteBuffer in = buffer.duplicate().position(offset);
+        readResultsKey(in);
+        long writtenAt = in.getLong();
+        int rowCount = in.getInt();
+        List<RepositoriesSearchOut> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new RepositoriesSearchOut(
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    localDate(in.getInt()),
+                    in.getInt(),
+                    in.getInt(),
+                    readString(in),
+                    readString(in)
+            ));
+        }
+        return new Timestamped<>(List.copyOf(rows), writtenAt);
+    }
+
+    private static void writeResultsEntry(
+            DataOutputStream out,
+            SearchCacheKey key,
+            Timestamped<List<RepositoriesSearchOut>> results
+    ) throws IOException {
+        writeString(out, key.keywords());
+        out.writeInt(epochDay(key.earliestCreatedDate()));
+        writeString(out, key.language());
+        out.writeInt(key.maxPages());
+        out.writeInt(key.limit() != null ? key.limit() : NO_LIMIT);
+
+        out.writeLong(results.writtenAtMillis());
+        out.writeInt(results.value().size());
+        for (RepositoriesSearchOut row : results.value()) {
+            writeString(out, row.name());
+            writeString(out, row.url());
+            writeString(out, row.language());
+            out.writeInt(epochDay(row.created()));
+            out.writeInt(row.stars());
+            out.writeInt(row.forks());
+            writeString(out, row.recency());
+            writeString(out, row.popularityScore());
+        }
+    }
+
+    private static SearchCacheKey readResultsKey(ByteBuffer in) {
+        String keywords = readString(in);
+        LocalDate earliestCreatedDate = localDate(in.getInt());
+        String language = readString(in);
+        int maxPages = in.getInt();
+        int limit = in.getInt();
+        return new SearchCacheKey(keywords, earliestCreatedDate, language, maxPages, limit != NO_LIMIT ? limit : null);
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @Nullable String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        // The length comes from the file: check it before allocating, so a corrupt one can't ask for gigabytes
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Truncated search snapshot");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int epochDay(@Nullable LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : EpochDays.UNKNOWN;
+    }
+
+    private static @Nullable LocalDate localDate(int epochDay) {
+        return EpochDays.toLocalDate(epochDay);
+    }
+
+    record Index(
+            Map<SearchCacheKey, Integer> resultOffsets,
+            Map<NormalizationStatsKey, Timestamped<NormalizationStats>> stats
+    ) {
+        static final Index EMPTY = new Index(Map.of(), Map.of());
+    }
+}
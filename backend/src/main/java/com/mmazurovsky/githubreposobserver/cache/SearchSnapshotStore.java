@@ -0,0 +1,25 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+
+/**
+ * On-disk second level behind the in-memory result and normalization caches, so a restarted instance
+ * starts warm. Lookups see the last written snapshot; freshness is decided by the callers' TTLs.
+ */
+public interface SearchSnapshotStore {
+    Optional<Timestamped<List<RepositoriesSearchOut>>> findResults(SearchCacheKey key);
+
+    Optional<Timestamped<NormalizationStats>> findStats(NormalizationStatsKey key);
+
+    void write(
+            Map<SearchCacheKey, Timestamped<List<RepositoriesSearchOut>>> results,
+            Map<NormalizationStatsKey, Timestamped<NormalizationStats>> stats
+    );
+
+    boolean isEnabled();
+}
@@ -0,0 +1,45 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mmazurovsky.githubreposobserver.service.NormalizationStatsService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Periodically, and once more on shutdown, persists the live result and normalization caches to the
+ * {@link SearchSnapshotStore}.
+ */
+@Component
+public class SearchSnapshotWriter {
+
+    private final SearchSnapshotStore store;
+    private final SearchResultsCache searchResultsCache;
+    private final NormalizationStatsService normalizationStatsService;
+
+    public SearchSnapshotWriter(
+            SearchSnapshotStore store,
+            SearchResultsCache searchResultsCache,
+            NormalizationStatsService normalizationStatsService
+    ) {
+        this.store = store;
+        this.searchResultsCache = searchResultsCache;
+        this.normalizationStatsService = normalizationStatsService;
+    }
+
+    @Scheduled(
+            initialDelayString = "${search.store.snapshot-interval:1m}",
+            fixedDelayString = "${search.store.snapshot-interval:1m}"
+    )
+    public void writeSnapshot() {
+        if (store.isEnabled()) {
+            store.write(searchResultsCache.snapshot(), normalizationStatsService.snapshot());
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        writeSnapshot();
+    }
+}
@@ -0,0 +1,18 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import java.time.Duration;
+
+/**
+ * A cached value with the wall-clock time it was computed, so a TTL keeps counting from the original
+ * computation when the value is reloaded from the snapshot store after a restart.
+ */
+public record Timestamped<T>(T value, long writtenAtMillis) {
+
+    public static <T> Timestamped<T> now(T value) {
+        return new Timestamped<>(value, System.currentTimeMillis());
+    }
+
+    public boolean isFresh(Duration ttl) {
+        return System.currentTimeMillis() - writtenAtMillis < ttl.toMillis();
+    }
+}
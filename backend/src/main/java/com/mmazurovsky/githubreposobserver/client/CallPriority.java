@@ -0,0 +1,39 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.util.Locale;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Scheduling class of an outbound GitHub call, carried with the caller's identity in the Reactor
+ * {@link Context} of the search that needs it. Calls made without one are treated as interactive.
+ */
+public enum CallPriority {
+    /** A user is waiting for the response. */
+    INTERACTIVE,
+    /** Background work anticipating user requests, such as refresh-ahead. */
+    PREFETCH,
+    /** Bulk work submitted together, where throughput matters more than latency. */
+    BATCH;
+
+    private static final String PRIORITY_KEY = CallPriority.class.getName();
+    private static final String CALLER_KEY = CallPriority.class.getName() + ".caller";
+    private static final String UNKNOWN_CALLER = "unknown";
+
+    public static Context context(CallPriority priority, String caller) {
+        return Context.of(PRIORITY_KEY, priority, CALLER_KEY, caller);
+    }
+
+    public static CallPriority of(ContextView context) {
+        return context.getOrDefault(PRIORITY_KEY, INTERACTIVE);
+    }
+
+    public static String callerOf(ContextView context) {
+        return context.getOrDefault(CALLER_KEY, UNKNOWN_CALLER);
+    }
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,215 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mmazurovsky.githubreposobserver.client.GithubTokenPool.GithubToken;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Queues outbound GitHub calls and hands out {@link GithubTokenPool} permits as they become available,
+ * instead of reserving them first come, first served.
+ * <p>
+ * Scheduling is weighted fair queuing on two levels. Across {@link CallPriority} classes each backlogged
+ * class gets permits in proportion to its weight ({@code github.scheduler.weights.*}), so interactive
+ * searches dominate without starving background work. Within a class every caller is a flow with an equal
+ * share (start-time fair queuing), so one caller's five-page search interleaves with everyone else's
+ * first page rather than running ahead of it. Normalization lookups are tagged with the class's current
+ * virtual time rather than behind their caller's queued pages, because the bounds let a search start
+ * producing scored results.
+ * <p>
+ * Waiting never holds a thread: queued calls are {@link MonoSink}s, and when no token is ready a single
+ * timer is armed for the earliest time one will be.
+ */
+@Component
+public class GithubCallScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(GithubCallScheduler.class);
+    private static final int MAX_IDLE_FLOWS = 1_024;
+
+    private final GithubTokenPool tokenPool;
+    private final SearchMetrics metrics;
+    private final Scheduler timer = Schedulers.parallel();
+    private final Map<CallPriority, PriorityClass> classes = new EnumMap<>(CallPriority.class);
+    private double classVirtualTime;
+    private long sequence;
+    private boolean timerArmed;
+
+    public GithubCallScheduler(
+            GithubTokenPool tokenPool,
+            SearchMetrics metrics,
+            @Value("${github.scheduler.weights.interactive:8}") double interactiveWeight,
+            @Value("${github.scheduler.weights.prefetch:2}") double prefetchWeight,
+            @Value("${github.scheduler.weights.batch:1}") double batchWeight
+    ) {
+        this.tokenPool = tokenPool;
+        this.metrics = metrics;
+        classes.put(CallPriority.INTERACTIVE, new PriorityClass(interactiveWeight));
+        classes.put(CallPriority.PREFETCH, new PriorityClass(prefetchWeight));
+        classes.put(CallPriority.BATCH, new PriorityClass(batchWeight));
+        classes.keySet().forEach(priority -> metrics.registerSchedulerQueue(priority.tag(), () -> queued(priority)));
+        logger.info("🚦 GitHub call scheduler: weights interactive={}, prefetch={}, batch={}",
+                interactiveWeight, prefetchWeight, batchWeight);
+    }
+
+    /**
+     * Waits, without blocking, for a permit granted in the caller's turn. Priority and caller come from the
+     * subscriber's context (see {@link CallPriority#context}).
+     */
+    public Mono<GithubToken> acquire(boolean normalization) {
+        return Mono.deferContextual(context -> {
+            CallPriority priority = CallPriority.of(context);
+            String caller = CallPriority.callerOf(context);
+            return Mono.<GithubToken>create(sink -> {
+                Pending pending = enqueue(priority, caller, normalization, sink);
+                sink.onCancel(() -> cancel(pending));
+                dispatch();
+            });
+        });
+    }
+
+    /**
+     * Calls waiting for a permit across all classes.
+     */
+    public synchronized int queued() {
+        return classes.values().stream().mapToInt(PriorityClass::depth).sum();
+    }
+
+    synchronized int queued(CallPriority priority) {
+        return classes.get(priority).depth();
+    }
+
+    private synchronized Pending enqueue(CallPriority priority, String caller, boolean normalization, MonoSink<GithubToken> sink) {
+        PriorityClass priorityClass = classes.get(priority);
+        if (priorityClass.queue.isEmpty()) {
+            // A class that was idle rejoins at the current round instead of cashing in the turns it skipped
+            priorityClass.finishTag = Math.max(priorityClass.finishTag, classVirtualTime);
+        }
+        double start = normalization
+                ? priorityClass.virtualTime
+                : Math.max(priorityClass.virtualTime, priorityClass.flowFinish.getOrDefault(caller, 0.0));
+        if (!normalization) {
+            priorityClass.flowFinish.put(caller, start + 1);
+        }
+        Pending pending = new Pending(priority, start, normalization, sequence++, System.nanoTime(), sink);
+        priorityClass.queue.add(pending);
+        return pending;
+    }
+
+    private synchronized void cancel(Pending pending) {
+        classes.get(pending.priority()).queue.remove(pending);
+    }
+
+    private void dispatch() {
+        List<Grant> grants = new ArrayList<>();
+        synchronized (this) {
+            while (true) {
+                PriorityClass next = nextClass();
+                if (next == null) {
+                    break;
+                }
+                Optional<GithubToken> token = tokenPool.tryAcquire();
+                if (token.isEmpty()) {
+                    armTimer();
+                    break;
+                }
+                Pending pending = next.poll();
+                classVirtualTime = next.finishTag;
+                next.finishTag += 1 / next.weight;
+                grants.add(new Grant(pending, token.get()));
+            }
+        }
+        // Completed outside the lock: subscribers continue synchronously on this thread
+        for (Grant grant : grants) {
+            Pending pending = grant.pending();
+            metrics.recordSchedulerWait(pending.priority().tag(), Duration.ofNanos(System.nanoTime() - pending.enqueuedNanos()));
+            pending.sink().success(grant.token());
+        }
+    }
+
+    private PriorityClass nextClass() {
+        PriorityClass next = null;
+        for (PriorityClass candidate : classes.values()) {
+            if (!candidate.queue.isEmpty() && (next == null || candidate.finishTag < next.finishTag)) {
+                next = candidate;
+            }
+        }
+        return next;
+    }
+
+    private void armTimer() {
+        if (timerArmed) {
+            return;
+        }
+        timerArmed = true;
+        long delayMillis = Math.max(1, tokenPool.nextAvailable().toMillis());
+        timer.schedule(() -> {
+            synchronized (this) {
+                timerArmed = false;
+            }
+            dispatch();
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class PriorityClass {
+        private static final Comparator<Pending> ORDER = Comparator
+                .comparingDouble(Pending::startTag)
+                .thenComparing(pending -> !pending.normalization())
+                .thenComparingLong(Pending::sequence);
+
+        final double weight;
+        final PriorityQueue<Pending> queue = new PriorityQueue<>(ORDER);
+        final Map<String, Double> flowFinish = new HashMap<>();
+        double virtualTime;
+        double finishTag;
+
+        PriorityClass(double weight) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Scheduler weights must be positive: " + weight);
+            }
+            this.weight = weight;
+        }
+
+        Pending poll() {
+            Pending pending = queue.poll();
+            virtualTime = Math.max(virtualTime, pending.startTag());
+            if (flowFinish.size() > MAX_IDLE_FLOWS) {
+                // Flows that finished before the current round have no backlog left to be fair about
+                flowFinish.values().removeIf(finish -> finish <= virtualTime);
+            }
+            return pending;
+        }
+
+        int depth() {
+            return queue.size();
+        }
+    }
+
+    private record Pending(
+            CallPriority priority,
+            double startTag,
+            boolean normalization,
+            long sequence,
+            long enqueuedNanos,
+            MonoSink<GithubToken> sink
+    ) {}
+
+    private record Grant(Pending pending, GithubToken token) {}
+}
@@ -0,0 +1,167 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Count-based circuit breaker around GitHub calls. While closed it tracks the outcome of the last
+ * {@code window-size} calls; once at least {@code minimum-calls} were seen and the share of failures
+ * (5xx, timeouts, connection errors) reaches {@code failure-rate-threshold}, it opens and calls fail fast
+ * for {@code open-duration}. It then lets {@code half-open-calls} trial calls through: all of them
+ * succeeding closes it, any failure opens it again. Responses below 500, including 403/422, show that
+ * GitHub is up and count as successes.
+ */
+@Component
+public class GithubCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(GithubCircuitBreaker.class);
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final Clock clock;
+    private final boolean enabled;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openMillis;
+    private final int halfOpenCalls;
+
+    private final boolean[] failures;
+    private int next;
+    private int recorded;
+    private int failed;
+
+    private State state = State.CLOSED;
+    private long openUntilMillis;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    @Autowired
+    public GithubCircuitBreaker(
+            @Value("${github.circuit-breaker.enabled:true}") boolean enabled,
+            @Value("${github.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${github.circuit-breaker.window-size:50}") int windowSize,
+            @Value("${github.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${github.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${github.circuit-breaker.half-open-calls:3}") int halfOpenCalls
+    ) {
+        this(enabled, failureRateThreshold, windowSize, minimumCalls, openDuration, halfOpenCalls, Clock.systemUTC());
+    }
+
+    GithubCircuitBreaker(
+            boolean enabled,
+            double failureRateThreshold,
+            int windowSize,
+            int minimumCalls,
+            Duration openDuration,
+            int halfOpenCalls,
+            Clock clock
+    ) {
+        this.clock = clock;
+        this.enabled = enabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openMillis = openDuration.toMillis();
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Whether a call may go out now. Every permitted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (clock.millis() < openUntilMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = 0;
+            halfOpenSuccesses = 0;
+            logger.info("🔌 GitHub circuit half-open: letting {} trial calls through", halfOpenCalls);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && (double) failed / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The permitted call ended without telling anything about GitHub's health, e.g. it was cancelled.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failed--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        if (failure) {
+            failed++;
+        }
+        next = (next + 1) % failures.length;
+    }
+
+    private void open() {
+        logger.warn("🔌 GitHub circuit open for {} ms after {} failures in {} calls", openMillis, failed, recorded);
+        state = State.OPEN;
+        openUntilMillis = clock.millis() + openMillis;
+    }
+
+    private void close() {
+        logger.info("🔌 GitHub circuit closed");
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failed = 0;
+    }
+}
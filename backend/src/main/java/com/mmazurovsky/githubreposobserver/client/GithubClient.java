@@ -1,14 +1,45 @@
 package com.mmazurovsky.githubreposobserver.client;
 
+import java.util.List;
+
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchFilter;
 import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
 import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
 
+import reactor.core.publisher.Mono;
+
 public interface GithubClient {
-    GithubRepositorySearchResponse searchRepositories(
+    /**
+     * Page returned in place of one GitHub would not serve: a 422, an empty body, or retries exhausted on
+     * 403/429/5xx. It reads as an empty search to callers that only render pages, and is marked incomplete so
+     * callers that must not mistake it for a genuinely empty result can tell with {@link #isFallback}.
+     */
+    GithubRepositorySearchResponse FALLBACK_PAGE = new GithubRepositorySearchResponse(0, true, List.of());
+
+    static boolean isFallback(GithubRepositorySearchResponse page) {
+        return page.totalCount() == 0 && page.incompleteResults() && page.items().isEmpty();
+    }
+
+    /**
+     * Searches repositories matching {@code filter}, which takes the place of the request's
+     * {@code earliestCreatedDate}.
+     */
+    Mono<GithubRepositorySearchResponse> searchRepositories(
             RepositoriesSearchIn request,
+            SearchFilter filter,
             int page,
             int perPage,
             String sort,
             String order
     );
+
+    default Mono<GithubRepositorySearchResponse> searchRepositories(
+            RepositoriesSearchIn request,
+            int page,
+            int perPage,
+            String sort,
+            String order
+    ) {
+        return searchRepositories(request, SearchFilter.of(request), page, perPage, sort, order);
+    }
 }
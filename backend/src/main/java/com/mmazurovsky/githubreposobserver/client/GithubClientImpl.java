@@ -1,21 +1,33 @@
 package com.mmazurovsky.githubreposobserver.client;
 
 import java.time.Duration;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
 
-import com.google.common.util.concurrent.RateLimiter;
+import com.mmazurovsky.githubreposobserver.client.GithubEtagStore.PageKey;
+import com.mmazurovsky.githubreposobserver.client.GithubEtagStore.StoredPage;
+import com.mmazurovsky.githubreposobserver.client.GithubTokenPool.GithubToken;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchFilter;
 import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
 import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+import com.mmazurovsky.githubreposobserver.util.Const;
+import com.mmazurovsky.githubreposobserver.util.SingleFlight;
+
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 @Component
 public class GithubClientImpl implements GithubClient {
@@ -31,117 +43,302 @@ public class GithubClientImpl implements GithubClient {
         new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cannot connect to search service");
 
     public static final ResponseStatusException GITHUB_CLIENT_FAILURE_EXCEPTION =
-        new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Search operation failed");
+        new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, Const.MSG_SEARCH_FAILED);
 
-    private final WebClient githubWebClient;
+    public static final ResponseStatusException GITHUB_CIRCUIT_OPEN_EXCEPTION =
+        new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search service temporarily unavailable");
 
-    // Rate limiter: GitHub allows 5000 requests/hour for authenticated requests
-    // Conservative rate: 1.2 requests/second (4320 requests/hour) to leave buffer
-    private static final double REQUESTS_PER_SECOND = 0.8;
-    private final RateLimiter rateLimiter = RateLimiter.create(REQUESTS_PER_SECOND);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int MAX_RETRIES = 4;
+    private static final Duration RATE_LIMITED_BACKOFF_STEP = Duration.ofMillis(1000);
+    private static final Duration SERVER_ERROR_BACKOFF_STEP = Duration.ofMillis(400);
+
+    private final WebClient githubWebClient;
+    private final GithubEtagStore etagStore;
+    private final GithubTokenPool tokenPool;
+    private final GithubCallScheduler callScheduler;
+    private final GithubCircuitBreaker circuitBreaker;
+    private final GithubHedgePolicy hedgePolicy;
+    private final SearchMetrics metrics;
+    private final SingleFlight<PageKey, GithubRepositorySearchResponse> inFlightPages = new SingleFlight<>(CallPriority::of);
 
     private static final Logger logger = LoggerFactory.getLogger(GithubClientImpl.class);
 
-    public GithubClientImpl(WebClient githubWebClient) {
+    public GithubClientImpl(
+            WebClient githubWebClient,
+            GithubEtagStore etagStore,
+            GithubTokenPool tokenPool,
+            GithubCallScheduler callScheduler,
+            GithubCircuitBreaker circuitBreaker,
+            GithubHedgePolicy hedgePolicy,
+            SearchMetrics metrics
+    ) {
         this.githubWebClient = githubWebClient;
+        this.etagStore = etagStore;
+        this.tokenPool = tokenPool;
+        this.callScheduler = callScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgePolicy = hedgePolicy;
+        this.metrics = metrics;
+        metrics.registerTokenBudgets(tokenPool.tokens());
+        metrics.registerCircuitBreaker(circuitBreaker);
     }
 
     @Override
-    public GithubRepositorySearchResponse searchRepositories(
+    public Mono<GithubRepositorySearchResponse> searchRepositories(
             RepositoriesSearchIn request,
+            SearchFilter filter,
             int page,
             int perPage,
             String sort,
             String order
     ) {
-        final String queryString = buildQueryString(request);
+        final String queryString = buildQueryString(request, filter);
+        final PageKey pageKey = new PageKey(queryString, sort, order, page, perPage);
 
-        // Acquire rate limit permit before making the request
-        double waitTime = rateLimiter.acquire();
-        if (waitTime > 0) {
-            logger.debug("🛡️ Rate limiter: waited {:.2f} seconds before API call", waitTime);
-        }
+        // Identical page fetches in flight (e.g. normalization lookups of concurrent searches) share one call
+        return inFlightPages.execute(pageKey, () -> timedFetchPage(pageKey));
+    }
+
+    private Mono<GithubRepositorySearchResponse> timedFetchPage(PageKey pageKey) {
+        final String kind = SearchMetrics.kindOf(pageKey.perPage());
 
-        int retryCount = 0;
-        final int maxRetries = 5;
-
-        while (retryCount < maxRetries) {
-            try {
-                return githubWebClient.get()
-                        .uri(uriBuilder -> uriBuilder
-                                .path("/search/repositories")
-                                .queryParam("q", queryString)
-                                .queryParam("sort", sort)
-                                .queryParam("order", order)
-                                .queryParam("page", page)
-                                .queryParam("per_page", perPage)
-                                .build(true))
-                        .retrieve()
-                        .bodyToMono(GithubRepositorySearchResponse.class)
-                        .block(Duration.ofSeconds(30));
-
-            } catch (WebClientResponseException ex) {
-                int statusCode = ex.getStatusCode().value();
-
-                if (statusCode == 422) {
-                    // Return empty response for 422 errors - this is expected behavior
-                    logger.info("Page {} returned 422 (Unprocessable Entity), returning empty result gracefully", page);
-                    return new GithubRepositorySearchResponse(0, false, List.of());
-                }
-
-                if (statusCode == 403 && retryCount < maxRetries) {
-                    // Retry for 403 errors (rate limiting) - though rate limiter should prevent most of these
-                    retryCount++;
-                    logger.warn("Retrying page {} due to rate limiting despite rate limiter (attempt {}/{}): status={}, message={}",
-                               page, retryCount, maxRetries, statusCode, ex.getMessage());
-                    try {
-                        Thread.sleep(1000 * retryCount);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        continue;
+        return Mono.defer(() -> {
+            final Timer.Sample sample = metrics.startTimer();
+            return fetchPage(pageKey)
+                    .doOnNext(response -> metrics.recordFetch(sample, kind, "success"))
+                    .doOnError(ex -> metrics.recordFetch(sample, kind, "error"))
+                    // Nobody is waiting any more: the call and any pending retry or backoff are dropped
+                    .doOnCancel(() -> metrics.recordFetch(sample, kind, "cancelled"));
+        });
+    }
+
+    private Mono<GithubRepositorySearchResponse> fetchPage(PageKey pageKey) {
+        final int page = pageKey.page();
+
+        // The breaker is asked before every attempt, so retries stop as soon as it opens
+        return Mono.defer(() -> circuitBreaker.tryAcquire()
+                        ? hedgedAttempt(pageKey)
+                        : Mono.<GithubRepositorySearchResponse>error(new CircuitOpenException()))
+                .retryWhen(retrySpec(page))
+                .onErrorResume(ex -> handleError(ex, pageKey));
+    }
+
+    /**
+     * The attempt, raced against a duplicate sent once it has taken longer than the hedge policy's
+     * percentile. Only the first attempt's outcome feeds the circuit breaker, and a failing duplicate
+     * never decides the result.
+     */
+    private Mono<GithubRepositorySearchResponse> hedgedAttempt(PageKey pageKey) {
+        final boolean normalization = pageKey.perPage() == 1;
+        hedgePolicy.onCall();
+        final Mono<GithubRepositorySearchResponse> primary = attempt(pageKey)
+                .doOnNext(response -> circuitBreaker.onSuccess())
+                .doOnError(ex -> {
+                    if (isOutage(ex)) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
                     }
-                    continue;
-                }
-
-                if (ex.getStatusCode().is4xxClientError()) {
-                    logger.error("4xx error from GitHub for page {}: status={}, message={}", page, statusCode, ex.getMessage());
-                    throw GITHUB_4XX_CLIENT_ERROR_EXCEPTION;
-                }
-
-                if (ex.getStatusCode().is5xxServerError() && retryCount < maxRetries) {
-                    retryCount++;
-                    logger.warn("Retrying page {} due to server error (attempt {}/{}): status={}, message={}",
-                               page, retryCount, maxRetries, statusCode, ex.getMessage());
-                    try {
-                        Thread.sleep(400 * retryCount); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        logger.warn("Request interrupted during retry backoff for page {}, returning empty result gracefully", page);
-                        // Return empty response instead of throwing exception
-                        return new GithubRepositorySearchResponse(0, false, List.of());
+                })
+                .doOnCancel(circuitBreaker::onIgnored);
+
+        final Optional<Duration> hedgeDelay = circuitBreaker.state() == GithubCircuitBreaker.State.CLOSED
+                ? hedgePolicy.hedgeDelay(normalization)
+                : Optional.empty();
+        if (hedgeDelay.isEmpty()) {
+            return primary;
+        }
+        final Mono<GithubRepositorySearchResponse> hedge = Mono.delay(hedgeDelay.get())
+                .flatMap(tick -> {
+                    if (!hedgePolicy.tryHedge()) {
+                        return Mono.never();
                     }
-                    continue;
-                }
-
-                // For 5xx server errors when retries are exhausted
-                logger.error("5xx server error from GitHub for page {} (retries exhausted): status={}, message={}",
-                           page, statusCode, ex.getMessage());
-                throw GITHUB_5XX_SERVER_ERROR_EXCEPTION;
-            } catch (WebClientRequestException ex) {
-                logger.error("WebClientRequestException occurred for page {}: {}", page, ex.getMessage());
-                throw GITHUB_CONNECTION_ERROR_EXCEPTION;
-            } catch (Exception ex) {
-                logger.error("Unexpected exception occurred for page {}: {}", page, ex.getMessage(), ex);
-                throw GITHUB_CLIENT_FAILURE_EXCEPTION;
+                    logger.debug("🏇 Page {} slower than {} ms, sending a hedge", pageKey.page(), hedgeDelay.get().toMillis());
+                    metrics.countHedge(SearchMetrics.HEDGE_SENT);
+                    return attempt(pageKey)
+                            .doOnNext(response -> metrics.countHedge(SearchMetrics.HEDGE_WON))
+                            .onErrorResume(ex -> Mono.never());
+                });
+        return Mono.firstWithSignal(primary, hedge);
+    }
+
+    private Mono<GithubRepositorySearchResponse> attempt(PageKey pageKey) {
+        final boolean normalization = pageKey.perPage() == 1;
+        final String kind = SearchMetrics.kindOf(pageKey.perPage());
+
+        // Every attempt, including retries and hedges, waits its turn in the scheduler for a permit
+        return acquireToken(normalization)
+                .flatMap(token -> {
+                    final Optional<StoredPage> storedPage = etagStore.get(pageKey);
+                    final Timer.Sample sample = metrics.startTimer();
+                    final long start = System.nanoTime();
+                    return githubWebClient.get()
+                            .uri(uriBuilder -> uriBuilder
+                                    .path("/search/repositories")
+                                    .queryParam("q", pageKey.query())
+                                    .queryParam("sort", pageKey.sort())
+                                    .queryParam("order", pageKey.order())
+                                    .queryParam("page", pageKey.page())
+                                    .queryParam("per_page", pageKey.perPage())
+                                    .build(true))
+                            .headers(headers -> {
+                                if (token.value() != null) {
+                                    headers.setBearerAuth(token.value());
+                                }
+                                storedPage.ifPresent(stored -> headers.setIfNoneMatch(stored.etag()));
+                            })
+                            .retrieve()
+                            .toEntity(GithubRepositorySearchResponse.class)
+                            .timeout(REQUEST_TIMEOUT)
+                            .doOnNext(entity -> {
+                                if (entity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                                    // The scheduler turn is spent, but a 304 leaves the token's window untouched
+                                    token.rateLimiter().refund();
+                                }
+                                token.rateLimiter().onResponse(entity.getHeaders());
+                                metrics.recordRequest(sample, kind, String.valueOf(entity.getStatusCode().value()));
+                                hedgePolicy.recordLatency(normalization, Duration.ofNanos(System.nanoTime() - start));
+                            })
+                            .doOnError(ex -> {
+                                if (ex instanceof WebClientResponseException responseException) {
+                                    token.rateLimiter().onResponse(responseException.getHeaders());
+                                }
+                                metrics.recordRequest(sample, kind, SearchMetrics.statusOf(ex));
+                            })
+                            .map(entity -> resolveResponse(pageKey, storedPage, entity));
+                });
+    }
+
+    // GitHub itself is failing, as opposed to rejecting this particular request
+    private static boolean isOutage(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException ex) {
+            return ex.getStatusCode().is5xxServerError();
+        }
+        return throwable instanceof WebClientRequestException || throwable instanceof TimeoutException;
+    }
+
+    private Mono<GithubToken> acquireToken(boolean normalization) {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            return callScheduler.acquire(normalization)
+                    .doOnNext(token -> metrics.recordLimiterWait(token.label(), Duration.ofNanos(System.nanoTime() - start)));
+        });
+    }
+
+    private Retry retrySpec(int page) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            if (!(signal.failure() instanceof WebClientResponseException ex) || signal.totalRetries() >= MAX_RETRIES) {
+                return Mono.error(signal.failure());
             }
+
+            final int statusCode = ex.getStatusCode().value();
+            final long attempt = signal.totalRetries() + 1;
+            final Duration backoff;
+            if (statusCode == 403 || statusCode == 429) {
+                // Rate limited: when GitHub said until when (Retry-After or an exhausted window) the pool
+                // already routes around that token or waits for it; otherwise fall back to a linear backoff
+                backoff = tokenPool.isThrottled() ? Duration.ZERO : RATE_LIMITED_BACKOFF_STEP.multipliedBy(attempt);
+                logger.warn("Retrying page {} due to rate limiting despite rate limiter (attempt {}/{}): status={}, message={}",
+                           page, attempt, MAX_RETRIES, statusCode, ex.getMessage());
+            } else if (ex.getStatusCode().is5xxServerError()) {
+                backoff = SERVER_ERROR_BACKOFF_STEP.multipliedBy(attempt);
+                logger.warn("Retrying page {} due to server error (attempt {}/{}): status={}, message={}",
+                           page, attempt, MAX_RETRIES, statusCode, ex.getMessage());
+            } else {
+                return Mono.error(signal.failure());
+            }
+            metrics.countRetry(statusCode);
+            return Mono.delay(backoff);
+        }));
+    }
+
+    private Mono<GithubRepositorySearchResponse> handleError(Throwable throwable, PageKey pageKey) {
+        final int page = pageKey.page();
+        if (throwable instanceof CircuitOpenException) {
+            metrics.countCircuitRejection();
+            // A stale copy of the page beats failing the whole search while GitHub recovers
+            Optional<StoredPage> storedPage = etagStore.get(pageKey);
+            if (storedPage.isPresent()) {
+                logger.warn("Circuit open, serving the last stored copy of page {}", page);
+                metrics.countFallback(SearchMetrics.FALLBACK_CIRCUIT_OPEN);
+                return Mono.just(storedPage.get().response());
+            }
+            logger.warn("Circuit open, failing page {} fast", page);
+            return Mono.error(GITHUB_CIRCUIT_OPEN_EXCEPTION);
+        }
+
+        if (throwable instanceof WebClientResponseException ex) {
+            int statusCode = ex.getStatusCode().value();
+
+            if (statusCode == 422) {
+                // Return empty response for 422 errors - this is expected behavior
+                logger.info("Page {} returned 422 (Unprocessable Entity), returning empty result gracefully", page);
+                metrics.countFallback(SearchMetrics.FALLBACK_UNPROCESSABLE);
+                return Mono.just(emptyResponse());
+            }
+
+            if (statusCode == 403 || statusCode == 429 || ex.getStatusCode().is5xxServerError()) {
+                logger.warn("All retries exhausted for page {} after {} attempts, returning empty result gracefully",
+                           page, MAX_RETRIES + 1);
+                // Return empty response instead of throwing exception for retry exhaustion
+                metrics.countFallback(SearchMetrics.FALLBACK_RETRIES_EXHAUSTED);
+                return Mono.just(emptyResponse());
+            }
+
+            if (ex.getStatusCode().is4xxClientError()) {
+                logger.error("4xx error from GitHub for page {}: status={}, message={}", page, statusCode, ex.getMessage());
+                return Mono.error(GITHUB_4XX_CLIENT_ERROR_EXCEPTION);
+            }
+
+            logger.error("Unexpected status from GitHub for page {}: status={}, message={}", page, statusCode, ex.getMessage());
+            return Mono.error(GITHUB_5XX_SERVER_ERROR_EXCEPTION);
+        }
+
+        if (throwable instanceof WebClientRequestException ex) {
+            logger.error("WebClientRequestException occurred for page {}: {}", page, ex.getMessage());
+            return Mono.error(GITHUB_CONNECTION_ERROR_EXCEPTION);
+        }
+
+        if (throwable instanceof TimeoutException) {
+            logger.error("Request for page {} timed out after {}", page, REQUEST_TIMEOUT);
+            return Mono.error(GITHUB_CLIENT_FAILURE_EXCEPTION);
         }
 
-        logger.warn("All retries exhausted for page {} after {} attempts, returning empty result gracefully", page, maxRetries);
-        // Return empty response instead of throwing exception for retry exhaustion
-        return new GithubRepositorySearchResponse(0, false, List.of());
+        logger.error("Unexpected exception occurred for page {}: {}", page, throwable.getMessage(), throwable);
+        return Mono.error(GITHUB_CLIENT_FAILURE_EXCEPTION);
     }
 
-    private String buildQueryString(RepositoriesSearchIn request) {
+    private GithubRepositorySearchResponse resolveResponse(
+            PageKey pageKey,
+            Optional<StoredPage> storedPage,
+            ResponseEntity<GithubRepositorySearchResponse> entity
+    ) {
+        if (entity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && storedPage.isPresent()) {
+            logger.debug("♻️ Page {} not modified, reusing stored response", pageKey.page());
+            return storedPage.get().response();
+        }
+
+        GithubRepositorySearchResponse response = entity.getBody();
+        if (response == null) {
+            logger.warn("Empty body for page {} with status {}, returning empty result gracefully",
+                    pageKey.page(), entity.getStatusCode().value());
+            metrics.countFallback(SearchMetrics.FALLBACK_EMPTY_BODY);
+            return emptyResponse();
+        }
+
+        String etag = entity.getHeaders().getETag();
+        if (etag != null) {
+            etagStore.put(pageKey, etag, response);
+        }
+        return response;
+    }
+
+    private static GithubRepositorySearchResponse emptyResponse() {
+        return FALLBACK_PAGE;
+    }
+
+    private String buildQueryString(RepositoriesSearchIn request, SearchFilter filter) {
         // Create query builder
         final StringBuilder queryBuilder = new StringBuilder();
 
@@ -153,15 +350,18 @@ public class GithubClientImpl implements GithubClient {
             queryBuilder.append("+language:").append(request.language());
         }
 
-        final var earliestCreatedDate = request.earliestCreatedDate();
-        if (earliestCreatedDate != null) {
-            // Add created date filter
-            final String formattedDate = earliestCreatedDate
-                    .format(DateTimeFormatter.ISO_DATE);
-            queryBuilder.append("+created:>=").append(formattedDate);
+        for (String qualifier : filter.qualifiers()) {
+            // Add created date and pushed filters
+            queryBuilder.append("+").append(qualifier);
         }
 
         return queryBuilder.toString();
     }
-}
 
+    // Rejected before any call was made; carries no stack trace since it is expected under an outage
+    private static final class CircuitOpenException extends RuntimeException {
+        CircuitOpenException() {
+            super("GitHub circuit breaker is open", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opens GitHub connections before the first search needs them, so it doesn't pay the TCP and TLS
+ * handshakes. Once the application is ready it sends {@code github.http.warm-up.connections} concurrent
+ * {@code GET /rate_limit} calls, which GitHub does not count against any rate limit, and the connections
+ * they open stay in the pool until {@code github.http.max-idle-time} (over HTTP/2 they share one
+ * multiplexed connection). With a non-zero {@code github.http.warm-up.interval} the calls are repeated so
+ * the pool stays warm through idle spells.
+ * Failures are only logged: a cold pool is slower, not broken.
+ */
+@Component
+public class GithubConnectionWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(GithubConnectionWarmer.class);
+    private static final String RATE_LIMIT_PATH = "/rate_limit";
+
+    private final WebClient githubWebClient;
+    private final int connections;
+    private final Duration interval;
+    private volatile Disposable warming;
+
+    public GithubConnectionWarmer(
+            WebClient githubWebClient,
+            @Value("${github.http.warm-up.connections:2}") int connections,
+            @Value("${github.http.warm-up.interval:0s}") Duration interval
+    ) {
+        this.githubWebClient = githubWebClient;
+        this.connections = connections;
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (connections <= 0) {
+            return;
+        }
+        final long start = System.nanoTime();
+        Mono<Integer> startup = warmUp().doOnNext(warmed -> logger.info("🔥 Warmed up {}/{} GitHub connections in {} ms",
+                warmed, connections, Duration.ofNanos(System.nanoTime() - start).toMillis()));
+        warming = (interval.isZero() || interval.isNegative()
+                ? startup.flux()
+                : startup.concatWith(Flux.interval(interval).concatMap(tick -> warmUp())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = warming;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Emits how many of the calls got a response, whatever its status.
+     */
+    Mono<Integer> warmUp() {
+        return Flux.range(0, connections)
+                .flatMap(call -> githubWebClient.get()
+                        .uri(RATE_LIMIT_PATH)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(1))
+                        .onErrorResume(ex -> {
+                            logger.debug("⚠️ GitHub connection warm-up call failed: {}", ex.getMessage());
+                            return Mono.just(0);
+                        }), connections)
+                .reduce(0, Integer::sum);
+    }
+}
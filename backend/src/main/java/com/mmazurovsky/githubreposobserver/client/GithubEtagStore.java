@@ -0,0 +1,45 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+
+/**
+ * Bounded store of the last ETag and decoded page seen for every search page. GitHub answers a
+ * matching {@code If-None-Match} with 304 Not Modified, which does not count against the rate limit,
+ * so the stored page can be reused without transferring or decoding the body again.
+ */
+@Component
+public class GithubEtagStore {
+
+    private final Cache<PageKey, StoredPage> pages;
+
+    public GithubEtagStore(@Value("${github.api.etag-store.max-entries:2000}") long maxEntries) {
+        this.pages = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<StoredPage> get(PageKey key) {
+        return Optional.ofNullable(pages.getIfPresent(key));
+    }
+
+    public void put(PageKey key, String etag, GithubRepositorySearchResponse response) {
+        pages.put(key, new StoredPage(etag, response));
+    }
+
+    public CacheStats stats() {
+        return pages.stats();
+    }
+
+    public record PageKey(String query, String sort, String order, int page, int perPage) {}
+
+    public record StoredPage(String etag, GithubRepositorySearchResponse response) {}
+}
@@ -0,0 +1,82 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mmazurovsky.githubreposobserver.util.RollingPercentile;
+
+/**
+ * Decides when a GitHub call is slow enough to be worth a duplicate. The trigger is the observed
+ * {@code github.hedging.percentile} latency of recent calls of the same kind (pages and normalization
+ * lookups differ a lot), never below {@code min-delay}. Hedges come out of a budget: every call earns
+ * {@code budget} of a hedge, up to {@code max-burst}, so duplicates stay a small fixed share of the
+ * traffic and a brownout, where every call is slow, cannot double the load.
+ */
+@Component
+public class GithubHedgePolicy {
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budget;
+    private final double maxBurst;
+    private final RollingPercentile pageLatency = new RollingPercentile(WINDOW);
+    private final RollingPercentile normalizationLatency = new RollingPercentile(WINDOW);
+    private double hedgeCredit;
+
+    public GithubHedgePolicy(
+            @Value("${github.hedging.enabled:false}") boolean enabled,
+            @Value("${github.hedging.percentile:0.95}") double percentile,
+            @Value("${github.hedging.min-delay:250ms}") Duration minDelay,
+            @Value("${github.hedging.budget:0.05}") double budget,
+            @Value("${github.hedging.max-burst:5}") double maxBurst
+    ) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budget = budget;
+        this.maxBurst = maxBurst;
+    }
+
+    /**
+     * How long to wait for a call before hedging it; empty when hedging is off or there are too few samples.
+     */
+    public Optional<Duration> hedgeDelay(boolean normalization) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        RollingPercentile latency = latencyOf(normalization);
+        if (latency.size() < MIN_SAMPLES) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofNanos(Math.max(minDelayNanos, latency.percentile(percentile))));
+    }
+
+    public synchronized void onCall() {
+        hedgeCredit = Math.min(maxBurst, hedgeCredit + budget);
+    }
+
+    /**
+     * Spends one hedge from the budget, if there is one left.
+     */
+    public synchronized boolean tryHedge() {
+        if (hedgeCredit < 1) {
+            return false;
+        }
+        hedgeCredit--;
+        return true;
+    }
+
+    public void recordLatency(boolean normalization, Duration latency) {
+        latencyOf(normalization).record(latency.toNanos());
+    }
+
+    private RollingPercentile latencyOf(boolean normalization) {
+        return normalization ? normalizationLatency : pageLatency;
+    }
+}
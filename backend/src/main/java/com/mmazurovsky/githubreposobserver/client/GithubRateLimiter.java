@@ -0,0 +1,182 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Rate limiter for outbound GitHub calls driven by what GitHub reports rather than a fixed guess.
+ * <p>
+ * Until the first response arrives permits are paced at {@code github.api.requests-per-second}. After
+ * that the limiter tracks the budget from {@code X-RateLimit-Remaining}/{@code X-RateLimit-Reset}:
+ * while budget is left permits are handed out as fast as {@code github.api.max-requests-per-second}
+ * allows, and once it is spent the next permit is granted exactly at the reset instant. A
+ * {@code Retry-After} header, in seconds or as an HTTP-date, blocks every caller for the requested time.
+ * <p>
+ * Waits never park the caller: each permit is reserved up front and {@link GithubTokenPool} expresses
+ * the wait as a {@code Mono.delay}, so any number of searches can queue without holding a thread.
+ * Budgets are per account, so the pool keeps one limiter per token.
+ */
+public class GithubRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(GithubRateLimiter.class);
+
+    static final String HEADER_LIMIT = "X-RateLimit-Limit";
+    static final String HEADER_REMAINING = "X-RateLimit-Remaining";
+    static final String HEADER_RESET = "X-RateLimit-Reset";
+    private static final int UNKNOWN = -1;
+
+    private final Clock clock;
+    private final long defaultIntervalMillis;
+    private final long minIntervalMillis;
+
+    private long nextFreeMillis;
+    private long blockedUntilMillis;
+    private int limit = UNKNOWN;
+    private int remaining = UNKNOWN;
+    private long resetAtMillis;
+
+    public GithubRateLimiter(double requestsPerSecond, double maxRequestsPerSecond) {
+        this(requestsPerSecond, maxRequestsPerSecond, Clock.systemUTC());
+    }
+
+    GithubRateLimiter(double requestsPerSecond, double maxRequestsPerSecond, Clock clock) {
+        this.clock = clock;
+        this.defaultIntervalMillis = (long) (1000 / requestsPerSecond);
+        this.minIntervalMillis = (long) (1000 / maxRequestsPerSecond);
+        this.nextFreeMillis = clock.millis();
+    }
+
+    /**
+     * Updates the budget from the rate-limit headers of any GitHub response, successful or not.
+     */
+    public synchronized void onResponse(HttpHeaders headers) {
+        final long now = clock.millis();
+        final Long headerLimit = parseLong(headers.getFirst(HEADER_LIMIT));
+        final Long headerRemaining = parseLong(headers.getFirst(HEADER_REMAINING));
+        final Long headerReset = parseLong(headers.getFirst(HEADER_RESET));
+
+        if (headerLimit != null) {
+            limit = headerLimit.intValue();
+        }
+        if (headerRemaining != null && headerReset != null && headerReset * 1000 > now) {
+            long headerResetMillis = headerReset * 1000;
+            if (headerResetMillis > resetAtMillis) {
+                // A new window (or the first one seen): GitHub's figure is authoritative
+                remaining = headerRemaining.intValue();
+                resetAtMillis = headerResetMillis;
+            } else if (headerResetMillis == resetAtMillis) {
+                // Same window: responses can arrive out of order, so keep the lower figure
+                remaining = Math.min(remaining, headerRemaining.intValue());
+            }
+        }
+
+        final Long retryAtMillis = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER), now);
+        if (retryAtMillis != null) {
+            blockedUntilMillis = Math.max(blockedUntilMillis, retryAtMillis);
+            logger.warn("⏳ GitHub asked to retry after {} ms", Math.max(0, retryAtMillis - now));
+        } else if (remaining == 0 && resetAtMillis > now) {
+            logger.debug("⏳ GitHub budget exhausted, next permit at reset in {} ms", resetAtMillis - now);
+        }
+    }
+
+    /**
+     * Gives back a permit GitHub did not count against the window, such as one answered with 304 Not
+     * Modified. Called before {@link #onResponse} for that response, whose figure then still applies.
+     */
+    public synchronized void refund() {
+        if (remaining >= 0 && (limit == UNKNOWN || remaining < limit)) {
+            remaining++;
+        }
+    }
+
+    /**
+     * Whether callers are currently held back by a known {@code Retry-After} or an exhausted window.
+     */
+    public synchronized boolean isThrottled() {
+        final long now = clock.millis();
+        return blockedUntilMillis > now || (remaining == 0 && resetAtMillis > now);
+    }
+
+    /**
+     * Budget left in the current window as last reported by GitHub, or {@code -1} when not yet known.
+     */
+    public synchronized int remainingBudget() {
+        return remaining;
+    }
+
+    /**
+     * How long a permit reserved now would wait, without reserving it.
+     */
+    public synchronized Duration peek() {
+        final long now = clock.millis();
+        return Duration.ofMillis(nextGrantAt(now) - now);
+    }
+
+    synchronized Duration reserve() {
+        final long now = clock.millis();
+        final long grantedAt = nextGrantAt(now);
+
+        if (resetAtMillis > 0 && grantedAt >= resetAtMillis) {
+            // The window has rolled over and starts full until a response says otherwise
+            remaining = limit;
+            resetAtMillis = 0;
+        }
+
+        if (remaining <= 0) {
+            // Nothing known about the current window yet - pace conservatively
+            remaining = UNKNOWN;
+            nextFreeMillis = grantedAt + defaultIntervalMillis;
+            return Duration.ofMillis(grantedAt - now);
+        }
+
+        remaining--;
+        nextFreeMillis = grantedAt + minIntervalMillis;
+        return Duration.ofMillis(grantedAt - now);
+    }
+
+    private long nextGrantAt(long now) {
+        final long grantedAt = Math.max(now, Math.max(nextFreeMillis, blockedUntilMillis));
+        if (remaining == 0 && resetAtMillis > grantedAt) {
+            // Budget spent: the next permit is granted exactly when the window resets
+            return resetAtMillis;
+        }
+        return grantedAt;
+    }
+
+    /**
+     * The instant a {@code Retry-After} header allows the next call at, given either as delay-seconds or as
+     * an HTTP-date (RFC 9110, section 10.2.3).
+     */
+    private static @Nullable Long parseRetryAfter(@Nullable String value, long now) {
+        final Long seconds = parseLong(value);
+        if (seconds != null) {
+            return now + seconds * 1000;
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static @Nullable Long parseLong(@Nullable String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.util.EpochDays;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decodes a GitHub search page straight from the network buffers with Jackson's non-blocking parser.
+ * Only {@code total_count}, {@code incomplete_results} and the nine item fields the scorer uses are
+ * materialized, timestamps directly as epoch days; owners, licenses, topics and URL fields are skipped
+ * token by token without building trees or strings, and each buffer is released as soon as it has been
+ * fed to the parser, so the page is never aggregated in memory.
+ */
+public class GithubSearchResponseDecoder extends AbstractDecoder<GithubRepositorySearchResponse> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public GithubSearchResponseDecoder() {
+        super(new MimeType("application", "json"), new MimeType("application", "*+json"));
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return GithubRepositorySearchResponse.class == elementType.toClass() && super.canDecode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<GithubRepositorySearchResponse> decode(
+            Publisher<DataBuffer> input,
+            ResolvableType elementType,
+            @Nullable MimeType mimeType,
+            @Nullable Map<String, Object> hints
+    ) {
+        return decodeToMono(input, elementType, mimeType, hints).flux();
+    }
+
+    @Override
+    public Mono<GithubRepositorySearchResponse> decodeToMono(
+            Publisher<DataBuffer> input,
+            ResolvableType elementType,
+            @Nullable MimeType mimeType,
+            @Nullable Map<String, Object> hints
+    ) {
+        return Mono.defer(() -> {
+            ProjectingParser parser = ProjectingParser.create();
+            // reduce() rather than then(): then() hands every buffer to the discard hook, releasing it twice
+            return Flux.from(input)
+                    .reduce(parser, (state, buffer) -> {
+                        try {
+                            state.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                        return state;
+                    })
+                    .flatMap(state -> Mono.justOrEmpty(state.finish()))
+                    .doFinally(signal -> parser.close());
+        }).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    @Override
+    public GithubRepositorySearchResponse decode(
+            DataBuffer buffer,
+            ResolvableType targetType,
+            @Nullable MimeType mimeType,
+            @Nullable Map<String, Object> hints
+    ) throws DecodingException {
+        ProjectingParser parser = ProjectingParser.create();
+        try {
+            parser.feed(buffer);
+            return parser.finish();
+        } finally {
+            DataBufferUtils.release(buffer);
+            parser.close();
+        }
+    }
+
+    /**
+     * Push-style state machine over the token stream. The non-blocking parser cannot
+     * {@code skipChildren()} across chunk boundaries, so skipped values are tracked by depth.
+     */
+    private static final class ProjectingParser {
+        private enum Level { START, ROOT, ITEMS, ITEM, DONE }
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+
+        private Level level = Level.START;
+        private int skipDepth;
+        private @Nullable String field;
+
+        private int totalCount;
+        private boolean incompleteResults;
+        private final List<GithubRepositoryItemResponse> items = new ArrayList<>();
+        private @Nullable ItemFields item;
+
+        private ProjectingParser(JsonParser parser) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        static ProjectingParser create() {
+            try {
+                return new ProjectingParser(JSON_FACTORY.createNonBlockingByteBufferParser());
+            } catch (IOException ex) {
+                throw new DecodingException("Failed to create GitHub search response parser", ex);
+            }
+        }
+
+        void feed(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer chunk = iterator.next();
+                    // The feeder keeps a reference to the chunk, so drain it fully before the buffer is released
+                    feeder.feedInput(chunk);
+                    drain();
+                }
+            } catch (IOException ex) {
+                throw new DecodingException("Malformed GitHub search response: " + ex.getMessage(), ex);
+            }
+        }
+
+        /**
+         * Returns the decoded page, or {@code null} for an empty body (e.g. 304 Not Modified).
+         */
+        @Nullable GithubRepositorySearchResponse finish() {
+            try {
+                feeder.endOfInput();
+                drain();
+            } catch (IOException ex) {
+                throw new DecodingException("Malformed GitHub search response: " + ex.getMessage(), ex);
+            }
+            if (level == Level.START) {
+                return null;
+            }
+            if (level != Level.DONE) {
+                throw new DecodingException("Truncated GitHub search response");
+            }
+            return new GithubRepositorySearchResponse(totalCount, incompleteResults, List.copyOf(items));
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // Nothing is held beyond the parser's own recycled buffers
+            }
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        }
+
+        private void handle(JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+            if (token == JsonToken.FIELD_NAME) {
+                field = parser.currentName();
+                return;
+            }
+
+            switch (level) {
+                case START -> {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new DecodingException("Expected a JSON object but got " + token);
+                    }
+                    level = Level.ROOT;
+                }
+                case ROOT -> {
+                    if (token == JsonToken.END_OBJECT) {
+                        level = Level.DONE;
+                    } else if (token == JsonToken.START_ARRAY && "items".equals(field)) {
+                        level = Level.ITEMS;
+                    } else if (token.isStructStart()) {
+                        skipDepth = 1;
+                    } else {
+                        readRootValue(token);
+                    }
+                }
+                case ITEMS -> {
+                    if (token == JsonToken.END_ARRAY) {
+                        level = Level.ROOT;
+                    } else if (token == JsonToken.START_OBJECT) {
+                        item = new ItemFields();
+                        level = Level.ITEM;
+                    } else if (token.isStructStart()) {
+                        skipDepth = 1;
+                    }
+                }
+                case ITEM -> {
+                    if (token == JsonToken.END_OBJECT) {
+                        items.add(item.build());
+                        item = null;
+                        level = Level.ITEMS;
+                    } else if (token.isStructStart()) {
+                        skipDepth = 1;
+                    } else {
+                        readItemValue(token);
+                    }
+                }
+                case DONE -> throw new DecodingException("Unexpected content after GitHub search response");
+            }
+        }
+
+        private void readRootValue(JsonToken token) throws IOException {
+            switch (field) {
+                case "total_count" -> totalCount = token == JsonToken.VALUE_NULL ? 0 : parser.getIntValue();
+                case "incomplete_results" -> incompleteResults = token == JsonToken.VALUE_TRUE;
+                case null, default -> {
+                    // Not projected
+                }
+            }
+        }
+
+        private void readItemValue(JsonToken token) throws IOException {
+            switch (field) {
+                case "id" -> item.id = token == JsonToken.VALUE_NULL ? 0 : parser.getLongValue();
+                case "name" -> item.name = text(token);
+                case "full_name" -> item.fullName = text(token);
+                case "html_url" -> item.htmlUrl = text(token);
+                case "stargazers_count" -> item.stargazersCount = token == JsonToken.VALUE_NULL ? 0 : parser.getIntValue();
+                case "forks_count" -> item.forksCount = token == JsonToken.VALUE_NULL ? 0 : parser.getIntValue();
+                case "updated_at" -> item.updatedEpochDay = epochDay(token);
+                case "language" -> item.language = text(token);
+                case "created_at" -> item.createdEpochDay = epochDay(token);
+                case null, default -> {
+                    // Not projected
+                }
+            }
+        }
+
+        private @Nullable String text(JsonToken token) throws IOException {
+            return token == JsonToken.VALUE_NULL ? null : parser.getText();
+        }
+
+        // Parsed from the parser's character buffer, so timestamps never become Strings
+        private int epochDay(JsonToken token) throws IOException {
+            if (token != JsonToken.VALUE_STRING) {
+                return EpochDays.UNKNOWN;
+            }
+            return EpochDays.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+    }
+
+    private static final class ItemFields {
+        long id;
+        @Nullable String name;
+        @Nullable String fullName;
+        @Nullable String htmlUrl;
+        int stargazersCount;
+        int forksCount;
+        int updatedEpochDay = EpochDays.UNKNOWN;
+        @Nullable String language;
+        int createdEpochDay = EpochDays.UNKNOWN;
+
+        GithubRepositoryItemResponse build() {
+            return new GithubRepositoryItemResponse(
+                    id, name, fullName, htmlUrl, stargazersCount, forksCount, updatedEpochDay, language, createdEpochDay);
+        }
+    }
+}
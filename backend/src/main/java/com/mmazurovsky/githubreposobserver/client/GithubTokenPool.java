@@ -0,0 +1,145 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Pool of GitHub API tokens, each with its own {@link GithubRateLimiter}. Every request is routed to
+ * the token that can be served soonest, preferring the one with the most budget left, so tokens whose
+ * window is exhausted sit out until their reset and throughput grows with the number of tokens.
+ */
+@Component
+public class GithubTokenPool {
+    private static final Logger logger = LoggerFactory.getLogger(GithubTokenPool.class);
+
+    // Tokens nobody has used yet are assumed to have a full window
+    private static final Comparator<GithubToken> BY_READINESS = Comparator
+            .comparing((GithubToken token) -> token.rateLimiter().peek())
+            .thenComparing(token -> token.rateLimiter().remainingBudget() < 0
+                    ? Integer.MAX_VALUE
+                    : token.rateLimiter().remainingBudget(), Comparator.reverseOrder());
+
+    private final List<GithubToken> tokens;
+
+    public GithubTokenPool(
+            @Value("${github.api.token:}") String token,
+            @Value("${github.api.tokens:}") List<String> additionalTokens,
+            @Value("${github.api.requests-per-second:0.8}") double requestsPerSecond,
+            @Value("${github.api.max-requests-per-second:10}") double maxRequestsPerSecond
+    ) {
+        Set<String> values = new LinkedHashSet<>();
+        if (!token.isBlank()) {
+            values.add(token.trim());
+        }
+        additionalTokens.stream()
+                .filter(value -> !value.isBlank())
+                .map(String::trim)
+                .forEach(values::add);
+
+        List<GithubToken> pool = new ArrayList<>();
+        for (String value : values) {
+            pool.add(new GithubToken("token-" + (pool.size() + 1), value,
+                    new GithubRateLimiter(requestsPerSecond, maxRequestsPerSecond)));
+        }
+        if (pool.isEmpty()) {
+            logger.warn("⚠️ No GitHub API token configured, using unauthenticated requests");
+            pool.add(new GithubToken("anonymous", null, new GithubRateLimiter(requestsPerSecond, maxRequestsPerSecond)));
+        }
+        this.tokens = List.copyOf(pool);
+        logger.info("🔑 GitHub token pool initialized with {} token(s)", tokens.size());
+    }
+
+    /**
+     * Picks a token and waits, without blocking, until its limiter grants a permit.
+     */
+    public Mono<GithubToken> acquire() {
+        return Mono.defer(() -> {
+            Reservation reservation = reserve();
+            if (reservation.delay().isZero()) {
+                return Mono.just(reservation.token());
+            }
+            logger.debug("🛡️ Rate limiter: waiting {} ms for {}", reservation.delay().toMillis(), reservation.token().label());
+            return Mono.delay(reservation.delay()).thenReturn(reservation.token());
+        });
+    }
+
+    /**
+     * Takes a permit only if one can be granted right now, from the token {@link #acquire()} would pick.
+     */
+    public synchronized Optional<GithubToken> tryAcquire() {
+        GithubToken token = pick();
+        if (!token.rateLimiter().peek().isZero()) {
+            return Optional.empty();
+        }
+        token.rateLimiter().reserve();
+        return Optional.of(token);
+    }
+
+    /**
+     * How long until some token could grant a permit.
+     */
+    public Duration nextAvailable() {
+        return tokens.stream()
+                .map(token -> token.rateLimiter().peek())
+                .min(Comparator.naturalOrder())
+                .orElse(Duration.ZERO);
+    }
+
+    /**
+     * Whether GitHub has told us how long to hold back every token in the pool.
+     */
+    public boolean isThrottled() {
+        return tokens.stream().allMatch(token -> token.rateLimiter().isThrottled());
+    }
+
+    /**
+     * Permits that could be granted right now without queueing: the budget GitHub reported for tokens no
+     * caller is waiting on. Unknown budgets count as none, so background work never runs before the first
+     * real response has shown what is available.
+     */
+    public int idleBudget() {
+        int idle = 0;
+        for (GithubToken token : tokens) {
+            GithubRateLimiter limiter = token.rateLimiter();
+            if (limiter.peek().isZero() && !limiter.isThrottled()) {
+                idle += Math.max(0, limiter.remainingBudget());
+            }
+        }
+        return idle;
+    }
+
+    public List<GithubToken> tokens() {
+        return tokens;
+    }
+
+    private synchronized Reservation reserve() {
+        GithubToken token = pick();
+        return new Reservation(token, token.rateLimiter().reserve());
+    }
+
+    private GithubToken pick() {
+        return tokens.size() == 1 ? tokens.get(0) : tokens.stream().min(BY_READINESS).orElseThrow();
+    }
+
+    private record Reservation(GithubToken token, Duration delay) {}
+
+    public record GithubToken(String label, @Nullable String value, GithubRateLimiter rateLimiter) {
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+}
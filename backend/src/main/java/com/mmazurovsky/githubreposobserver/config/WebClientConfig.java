@@ -3,53 +3,82 @@ package com.mmazurovsky.githubreposobserver.config;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import com.mmazurovsky.githubreposobserver.client.GithubSearchResponseDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.http.client.HttpClient;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import static com.mmazurovsky.githubreposobserver.util.ClientLoggingUtil.logRequest;
 
 @Configuration
 public class WebClientConfig {
-
-    @Value("${github.api.token}")
-    private String githubToken;
+    private static final Logger logger = LoggerFactory.getLogger(WebClientConfig.class);
 
     @Bean
-    public WebClient githubWebClient() {
+    public WebClient githubWebClient(
+            @Value("${github.api.base-url:https://api.github.com}") String baseUrl,
+            @Value("${github.http.max-connections:50}") int maxConnections,
+            @Value("${github.http.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${github.http.max-life-time:10m}") Duration maxLifeTime,
+            @Value("${github.http.http2:true}") boolean http2,
+            @Value("${github.http.compression:true}") boolean compression
+    ) {
 
         ConnectionProvider provider = ConnectionProvider.builder("github-conn-provider")
-                .maxConnections(50)
+                .maxConnections(maxConnections)
                 .pendingAcquireTimeout(Duration.ofSeconds(30))
+                // Closed before the upstream drops them, so a pooled connection is never reused mid-close
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime.dividedBy(2))
+                // Publishes reactor.netty.connection.provider.* pool gauges to Micrometer
+                .metrics(true)
                 .build();
 
+        // HTTP/2 is negotiated through ALPN, so it needs TLS; plain-HTTP stand-ins stay on HTTP/1.1
+        boolean secure = baseUrl.startsWith("https:");
+        HttpProtocol[] protocols = http2 && secure
+                ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[]{HttpProtocol.HTTP11};
+
         HttpClient httpClient = HttpClient.create(provider)
+                .protocol(protocols)
+                // Sends Accept-Encoding: gzip and inflates responses before they reach the decoder
+                .compress(compression)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 20000)
                 .responseTimeout(Duration.ofSeconds(60))
+                // Connect, TLS handshake and bytes-received timings (reactor.netty.http.client.*); paths carry no ids
+                .metrics(true, uri -> uri)
                 .doOnConnected(conn -> conn
                         .addHandlerLast(new ReadTimeoutHandler(60, TimeUnit.SECONDS))
                 );
+        // Loads the event loops, DNS resolver and TLS provider now instead of on the first search
+        httpClient.warmup().block();
+        logger.info("🌐 GitHub HTTP client: protocols={}, compression={}, max connections={}, max idle={}",
+                Arrays.toString(protocols), compression, maxConnections, maxIdleTime);
 
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .codecs(configurer ->
-                        configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024) // 2MB
-                )
-                .baseUrl("https://api.github.com")
+                // Search pages are decoded incrementally as buffers arrive instead of being aggregated first
+                .codecs(configurer -> configurer.customCodecs().register(new GithubSearchResponseDecoder()))
+                .baseUrl(baseUrl)
                 .defaultHeader("Accept", "application/vnd.github+json")
                 .defaultHeader("X-GitHub-Api-Version", "2022-11-28")
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader("Authorization", "Bearer " + githubToken)
                 .filter(logRequest())
                 .build();
     }
-}
\ No newline at end of file
+}
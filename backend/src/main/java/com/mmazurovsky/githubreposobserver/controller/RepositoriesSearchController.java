@@ -1,32 +1,124 @@
 package com.mmazurovsky.githubreposobserver.controller;
 
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import com.mmazurovsky.githubreposobserver.client.CallPriority;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesBatchSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesDeepSearchIn;
 import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesBatchResult;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchFrame;
 import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
 import com.mmazurovsky.githubreposobserver.service.SearchAndScoringService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
 @RestController
 @RequestMapping("/api")
 public class RepositoriesSearchController {
 
+    // The service answers 504 at the deep search deadline; the container timeout only backs that up
+    private static final Duration DEEP_SEARCH_TIMEOUT_GRACE = Duration.ofSeconds(10);
+
     private final SearchAndScoringService searchAndScoringService;
+    private final Duration deepSearchTimeout;
 
-    public RepositoriesSearchController(SearchAndScoringService searchAndScoringService) {
+    public RepositoriesSearchController(
+            SearchAndScoringService searchAndScoringService,
+            @Value("${search.deep.deadline:10m}") Duration deepSearchDeadline
+    ) {
         this.searchAndScoringService = searchAndScoringService;
+        this.deepSearchTimeout = deepSearchDeadline.plus(DEEP_SEARCH_TIMEOUT_GRACE);
     }
 
     @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<RepositoriesSearchOut> searchRepositories(
-            @Validated @ModelAttribute RepositoriesSearchIn request
+    public DeferredResult<List<RepositoriesSearchOut>> searchRepositories(
+            @Validated @ModelAttribute RepositoriesSearchIn request,
+            HttpServletRequest servletRequest
+    ) {
+        return cancelOnDisconnect(searchAndScoringService.searchAndOutputRepositoriesWithScores(request)
+                .contextWrite(interactive(servletRequest)));
+    }
+
+    @GetMapping(value = "/search/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RepositoriesSearchFrame> streamRepositories(
+            @Validated @ModelAttribute RepositoriesSearchIn request,
+            HttpServletRequest servletRequest
+    ) {
+        return searchAndScoringService.streamRepositoriesWithScores(request)
+                .contextWrite(interactive(servletRequest));
+    }
+
+    @GetMapping(value = "/search/deep", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<List<RepositoriesSearchOut>> deepSearchRepositories(
+            @Validated @ModelAttribute RepositoriesDeepSearchIn request,
+            HttpServletRequest servletRequest
+    ) {
+        // Hundreds of calls per search: they share the batch class so interactive searches keep precedence
+        return cancelOnDisconnect(new DeferredResult<>(deepSearchTimeout.toMillis()),
+                searchAndScoringService.deepSearchAndOutputRepositoriesWithScores(request)
+                        .contextWrite(CallPriority.context(CallPriority.BATCH, "deep:" + servletRequest.getRemoteAddr())));
+    }
+
+    @PostMapping(value = "/search/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<List<RepositoriesBatchResult>> searchBatch(
+            @Validated @RequestBody RepositoriesBatchSearchIn request,
+            HttpServletRequest servletRequest
     ) {
-        return searchAndScoringService.searchAndOutputRepositoriesWithScores(request);
+        return cancelOnDisconnect(searchAndScoringService.searchBatch(request.queries())
+                .collectSortedList(Comparator.comparingInt(RepositoriesBatchResult::index))
+                .contextWrite(batch(servletRequest)));
+    }
+
+    @PostMapping(value = "/search/batch", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<RepositoriesBatchResult> streamBatch(
+            @Validated @RequestBody RepositoriesBatchSearchIn request,
+            HttpServletRequest servletRequest
+    ) {
+        return searchAndScoringService.searchBatch(request.queries())
+                .contextWrite(batch(servletRequest));
+    }
+
+    /**
+     * Subscribes like Spring's own {@code Mono} return value handling, but also cancels the search when the
+     * async request ends without a result: the client disconnected or the container timed the request out.
+     * Streaming endpoints need no such help, their emitters already cancel on a failed write.
+     */
+    private static <T> DeferredResult<T> cancelOnDisconnect(Mono<T> search) {
+        return cancelOnDisconnect(new DeferredResult<>(), search);
+    }
+
+    private static <T> DeferredResult<T> cancelOnDisconnect(DeferredResult<T> result, Mono<T> search) {
+        Disposable subscription = search.subscribe(result::setResult, result::setErrorResult, () -> result.setResult(null));
+        result.onError(error -> subscription.dispose());
+        result.onTimeout(subscription::dispose);
+        result.onCompletion(subscription::dispose);
+        return result;
+    }
+
+    // Each client address is one flow in the GitHub call scheduler, so heavy users queue behind their own calls
+    private static Context interactive(HttpServletRequest servletRequest) {
+        return CallPriority.context(CallPriority.INTERACTIVE, servletRequest.getRemoteAddr());
+    }
+
+    private static Context batch(HttpServletRequest servletRequest) {
+        return CallPriority.context(CallPriority.BATCH, "batch:" + servletRequest.getRemoteAddr());
     }
 }
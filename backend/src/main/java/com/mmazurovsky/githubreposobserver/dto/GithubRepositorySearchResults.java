@@ -4,11 +4,25 @@ import java.util.List;
 
 import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
 
+/**
+ * @param incomplete some page of the search came back as the client's fallback page, so repositories are
+ *                   missing; such results are served but never cached
+ */
 public record GithubRepositorySearchResults(
         int minStars,
         int maxStars,
         int minForks,
         int maxForks,
-        List<GithubRepositoryItemResponse> repositories
+        List<GithubRepositoryItemResponse> repositories,
+        boolean incomplete
 ) {
+    public GithubRepositorySearchResults(
+            int minStars,
+            int maxStars,
+            int minForks,
+            int maxForks,
+            List<GithubRepositoryItemResponse> repositories
+    ) {
+        this(minStars, maxStars, minForks, maxForks, repositories, false);
+    }
 }
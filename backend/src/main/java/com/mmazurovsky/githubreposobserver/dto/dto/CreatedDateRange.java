@@ -0,0 +1,55 @@
+package com.mmazurovsky.githubreposobserver.dto.dto;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Inclusive range of repository creation dates, rendered as GitHub's {@code created:} qualifier.
+ * Either end may be open.
+ */
+public record CreatedDateRange(@Nullable LocalDate from, @Nullable LocalDate to) implements CreatedRange {
+
+    public static CreatedDateRange since(@Nullable LocalDate from) {
+        return new CreatedDateRange(from, null);
+    }
+
+    @Override
+    public @Nullable String qualifier() {
+        if (from != null && to != null) {
+            return "created:" + from + ".." + to;
+        }
+        if (from != null) {
+            return "created:>=" + from;
+        }
+        return to != null ? "created:<=" + to : null;
+    }
+
+    /**
+     * Number of days covered; both ends must be set.
+     */
+    public long days() {
+        return ChronoUnit.DAYS.between(from, to) + 1;
+    }
+
+    /**
+     * Splits a closed range into at most {@code parts} contiguous, non-overlapping ranges of (nearly)
+     * equal length, newest first.
+     */
+    public List<CreatedDateRange> split(int parts) {
+        long days = days();
+        int count = (int) Math.max(1, Math.min(parts, days));
+        List<CreatedDateRange> ranges = new ArrayList<>(count);
+        LocalDate end = to;
+        for (int i = count; i > 0; i--) {
+            long length = (days * i / count) - (days * (i - 1) / count);
+            LocalDate start = end.minusDays(length - 1);
+            ranges.add(new CreatedDateRange(start, end));
+            end = start.minusDays(1);
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mmazurovsky.githubreposobserver.dto.dto;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Range of repository creation, rendered as GitHub's {@code created:} qualifier: whole days, or UTC
+ * timestamps to cut a single day that holds more repositories than one query can reach.
+ */
+public sealed interface CreatedRange permits CreatedDateRange, CreatedTimeRange {
+
+    /**
+     * The qualifier to append to a search query, or {@code null} when the range is unbounded.
+     */
+    @Nullable String qualifier();
+}
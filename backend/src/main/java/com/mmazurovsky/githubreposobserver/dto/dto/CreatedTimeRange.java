@@ -0,0 +1,53 @@
+package com.mmazurovsky.githubreposobserver.dto.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusive range of repository creation times to the second, rendered as a {@code created:} qualifier
+ * with ISO-8601 UTC timestamps, e.g. {@code created:2024-05-01T00:00:00Z..2024-05-01T05:59:59Z}.
+ */
+public record CreatedTimeRange(Instant from, Instant to) implements CreatedRange {
+
+    /**
+     * The whole of {@code day} in UTC, the zone GitHub's date-only {@code created:} ranges use.
+     */
+    public static CreatedTimeRange ofDay(LocalDate day) {
+        Instant start = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        return new CreatedTimeRange(start, start.plus(Duration.ofDays(1)).minusSeconds(1));
+    }
+
+    @Override
+    public String qualifier() {
+        return "created:" + from + ".." + to;
+    }
+
+    /**
+     * Number of seconds covered.
+     */
+    public long seconds() {
+        return Duration.between(from, to).toSeconds() + 1;
+    }
+
+    /**
+     * Splits the range into at most {@code parts} contiguous, non-overlapping ranges of (nearly) equal
+     * length, newest first.
+     */
+    public List<CreatedTimeRange> split(int parts) {
+        long seconds = seconds();
+        int count = (int) Math.max(1, Math.min(parts, seconds));
+        List<CreatedTimeRange> ranges = new ArrayList<>(count);
+        Instant end = to;
+        for (int i = count; i > 0; i--) {
+            long length = (seconds * i / count) - (seconds * (i - 1) / count);
+            Instant start = end.minusSeconds(length - 1);
+            ranges.add(new CreatedTimeRange(start, end));
+            end = start.minusSeconds(1);
+        }
+        return ranges;
+    }
+}
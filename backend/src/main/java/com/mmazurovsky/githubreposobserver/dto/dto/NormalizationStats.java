@@ -0,0 +1,3 @@
+package com.mmazurovsky.githubreposobserver.dto.dto;
+
+public record NormalizationStats(int minStars, int maxStars, int minForks) {}
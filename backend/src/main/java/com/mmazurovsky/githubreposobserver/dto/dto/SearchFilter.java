@@ -0,0 +1,44 @@
+package com.mmazurovsky.githubreposobserver.dto.dto;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+
+/**
+ * Qualifiers narrowing a search beyond its keywords and language: a creation date range and, for delta
+ * refreshes, a lower bound on the last push.
+ */
+public record SearchFilter(CreatedRange created, @Nullable Instant pushedSince) {
+
+    public static SearchFilter of(RepositoriesSearchIn request) {
+        return created(CreatedDateRange.since(request.earliestCreatedDate()));
+    }
+
+    public static SearchFilter created(CreatedRange created) {
+        return new SearchFilter(created, null);
+    }
+
+    public SearchFilter pushedSince(Instant since) {
+        return new SearchFilter(created, since.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    /**
+     * GitHub search qualifiers, e.g. {@code created:>=2020-01-01} or {@code pushed:>=2024-05-01T10:00:00Z}.
+     */
+    public List<String> qualifiers() {
+        List<String> qualifiers = new ArrayList<>(2);
+        String createdQualifier = created.qualifier();
+        if (createdQualifier != null) {
+            qualifiers.add(createdQualifier);
+        }
+        if (pushedSince != null) {
+            qualifiers.add("pushed:>=" + pushedSince);
+        }
+        return qualifiers;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mmazurovsky.githubreposobserver.dto.dto;
+
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+
+/**
+ * Snapshot of a search in progress: everything fetched from the first {@code pagesReceived} pages.
+ * Only the {@code complete} snapshot carries the final normalization bounds and repository set.
+ */
+public record SearchProgress(
+        GithubRepositorySearchResults results,
+        int pagesReceived,
+        int totalPages,
+        boolean complete
+) {
+}
@@ -0,0 +1,34 @@
+package com.mmazurovsky.githubreposobserver.dto.external;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.mmazurovsky.githubreposobserver.util.EpochDays;
+
+/**
+ * Reads a GitHub timestamp into {@link EpochDays} from the parser's character buffer; missing, null and
+ * malformed values become {@link EpochDays#UNKNOWN}.
+ */
+public class EpochDayDeserializer extends StdDeserializer<Integer> {
+
+    public EpochDayDeserializer() {
+        super(Integer.class);
+    }
+
+    @Override
+    public Integer deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return EpochDays.UNKNOWN;
+        }
+        return EpochDays.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    @Override
+    public Integer getNullValue(DeserializationContext context) {
+        return EpochDays.UNKNOWN;
+    }
+}
@@ -4,8 +4,15 @@ import java.time.OffsetDateTime;
 
 import org.jetbrains.annotations.Nullable;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.mmazurovsky.githubreposobserver.util.EpochDays;
 
+/**
+ * A search result item. {@code updated_at} and {@code created_at} are decoded once into {@link EpochDays},
+ * so scoring never parses dates.
+ */
 public record GithubRepositoryItemResponse(
         long id,
         String name,
@@ -18,9 +25,31 @@ public record GithubRepositoryItemResponse(
         @JsonProperty("forks_count")
         int forksCount,
         @JsonProperty("updated_at")
-        @Nullable String updatedAt,
+        @JsonDeserialize(using = EpochDayDeserializer.class)
+        int updatedEpochDay,
         @JsonProperty("language")
         @Nullable String language,
         @JsonProperty("created_at")
-        @Nullable OffsetDateTime created
-) {}
+        @JsonDeserialize(using = EpochDayDeserializer.class)
+        int createdEpochDay
+) {
+
+    @JsonCreator
+    public GithubRepositoryItemResponse {
+    }
+
+    public GithubRepositoryItemResponse(
+            long id,
+            String name,
+            String fullName,
+            String htmlUrl,
+            int stargazersCount,
+            int forksCount,
+            @Nullable String updatedAt,
+            @Nullable String language,
+            @Nullable OffsetDateTime created
+    ) {
+        this(id, name, fullName, htmlUrl, stargazersCount, forksCount,
+                EpochDays.parse(updatedAt), language, EpochDays.of(created));
+    }
+}
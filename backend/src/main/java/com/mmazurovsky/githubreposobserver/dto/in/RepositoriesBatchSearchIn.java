@@ -0,0 +1,16 @@
+package com.mmazurovsky.githubreposobserver.dto.in;
+
+import java.util.List;
+
+import com.mmazurovsky.githubreposobserver.util.Const;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record RepositoriesBatchSearchIn(
+        @NotNull(message = Const.MSG_BATCH_SIZE)
+        @Size(min = 1, max = Const.MAX_BATCH_SIZE, message = Const.MSG_BATCH_SIZE)
+        List<@Valid @NotNull RepositoriesSearchIn> queries
+) {
+}
@@ -0,0 +1,50 @@
+package com.mmazurovsky.githubreposobserver.dto.in;
+
+import java.time.LocalDate;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.mmazurovsky.githubreposobserver.util.Const;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A search over every matching repository rather than the first pages of one ranking; see
+ * {@code GET /api/search/deep}.
+ */
+public record RepositoriesDeepSearchIn(
+        @Size(min = 1, max = 50, message = Const.MSG_KEYWORDS_LENGTH)
+        @NotBlank(message = "Keywords must not be blank")
+        String keywords,
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        @Past(message = Const.MSG_EARLIEST_DATE_PAST)
+        @Nullable
+        LocalDate earliestCreatedDate,
+
+        @Size(min = 1, message = Const.MSG_LANGUAGE_LENGTH)
+        @Pattern(
+                regexp = Const.REGEX_LANGUAGE,
+                message = Const.MSG_LANGUAGE_PATTERN
+        )
+        @Nullable
+        String language,
+
+        // Coverage bound: repositories fetched, newest first, before the search stops partitioning
+        @Min(value = 1, message = Const.MSG_MAX_REPOSITORIES)
+        @Max(value = Const.MAX_DEEP_REPOSITORIES, message = Const.MSG_MAX_REPOSITORIES)
+        @Nullable
+        Integer maxRepositories,
+
+        @Min(value = 1, message = Const.MSG_LIMIT)
+        @Max(value = 500, message = Const.MSG_LIMIT)
+        @Nullable
+        Integer limit
+) {
+}
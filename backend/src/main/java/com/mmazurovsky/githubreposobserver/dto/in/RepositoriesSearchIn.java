@@ -8,6 +8,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import com.mmazurovsky.githubreposobserver.util.Const;
 
 import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
@@ -33,6 +34,12 @@ public record RepositoriesSearchIn(
 
         @Max(value = 5, message = Const.MSG_MAX_PAGES)
         @Nullable
-        Integer maxPages
+        Integer maxPages,
+
+        // Top-K: only the highest scored repositories are ranked, converted and returned
+        @Min(value = 1, message = Const.MSG_LIMIT)
+        @Max(value = 500, message = Const.MSG_LIMIT)
+        @Nullable
+        Integer limit
 ) {
 }
@@ -0,0 +1,27 @@
+package com.mmazurovsky.githubreposobserver.dto.out;
+
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+
+/**
+ * Outcome of one query of a batch search. {@code index} is the query's position in the request, since
+ * streamed results arrive in completion order. A failed query carries an {@code error} instead of
+ * {@code repositories} and does not fail the rest of the batch.
+ */
+public record RepositoriesBatchResult(
+        int index,
+        RepositoriesSearchIn query,
+        @Nullable List<RepositoriesSearchOut> repositories,
+        @Nullable String error
+) {
+    public static RepositoriesBatchResult success(int index, RepositoriesSearchIn query, List<RepositoriesSearchOut> repositories) {
+        return new RepositoriesBatchResult(index, query, repositories, null);
+    }
+
+    public static RepositoriesBatchResult failure(int index, RepositoriesSearchIn query, String error) {
+        return new RepositoriesBatchResult(index, query, null, error);
+    }
+}
@@ -0,0 +1,25 @@
+package com.mmazurovsky.githubreposobserver.dto.out;
+
+import java.util.List;
+
+/**
+ * One frame of the streaming search. {@code update} frames carry the provisional top repositories of
+ * the pages received so far; the single {@code complete} frame carries the same list as {@code GET /api/search}.
+ */
+public record RepositoriesSearchFrame(
+        String type,
+        int pagesReceived,
+        int totalPages,
+        List<RepositoriesSearchOut> repositories
+) {
+    public static final String TYPE_UPDATE = "update";
+    public static final String TYPE_COMPLETE = "complete";
+
+    public static RepositoriesSearchFrame update(int pagesReceived, int totalPages, List<RepositoriesSearchOut> repositories) {
+        return new RepositoriesSearchFrame(TYPE_UPDATE, pagesReceived, totalPages, repositories);
+    }
+
+    public static RepositoriesSearchFrame complete(int totalPages, List<RepositoriesSearchOut> repositories) {
+        return new RepositoriesSearchFrame(TYPE_COMPLETE, totalPages, totalPages, repositories);
+    }
+}
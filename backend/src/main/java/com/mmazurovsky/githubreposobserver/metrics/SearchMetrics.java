@@ -0,0 +1,237 @@
+package com.mmazurovsky.githubreposobserver.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.mmazurovsky.githubreposobserver.client.GithubCircuitBreaker;
+import com.mmazurovsky.githubreposobserver.client.GithubTokenPool.GithubToken;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for every stage of a search, so latency can be attributed: rate-limiter waits, individual GitHub
+ * calls, whole page fetches including retries, normalization, scoring and result sizes. Percentile
+ * histograms are switched on for the {@code github.*} and {@code search.*} prefixes in application.yml.
+ */
+@Component
+public class SearchMetrics {
+    public static final String KIND_PAGE = "page";
+    public static final String KIND_NORMALIZATION = "normalization";
+
+    public static final String FALLBACK_UNPROCESSABLE = "unprocessable";
+    public static final String FALLBACK_RETRIES_EXHAUSTED = "retries_exhausted";
+    public static final String FALLBACK_EMPTY_BODY = "empty_body";
+    public static final String FALLBACK_CIRCUIT_OPEN = "circuit_open";
+
+    public static final String HEDGE_SENT = "sent";
+    public static final String HEDGE_WON = "won";
+
+    public static final String REFRESH_REFRESHED = "refreshed";
+    public static final String REFRESH_NO_BUDGET = "no_budget";
+    public static final String REFRESH_FAILED = "failed";
+
+    public static final String DELTA_MERGED = "merged";
+    public static final String DELTA_UNCHANGED = "unchanged";
+    public static final String DELTA_TOO_LARGE = "too_large";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary resultSize;
+
+    public SearchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.resultSize = DistributionSummary.builder("search.results.size")
+                .description("Repositories returned per search")
+                .baseUnit("repositories")
+                .register(registry);
+    }
+
+    public static String kindOf(int perPage) {
+        return perPage == 1 ? KIND_NORMALIZATION : KIND_PAGE;
+    }
+
+    public void registerTokenBudgets(List<GithubToken> tokens) {
+        for (GithubToken token : tokens) {
+            Gauge.builder("github.ratelimit.remaining", token.rateLimiter(), limiter -> limiter.remainingBudget())
+                    .description("Search requests left in the current rate-limit window, -1 until GitHub reports it")
+                    .tag("token", token.label())
+                    .register(registry);
+        }
+    }
+
+    public void recordLimiterWait(String token, Duration wait) {
+        Timer.builder("github.ratelimit.wait")
+                .description("Time spent waiting for a rate-limit permit before a GitHub call")
+                .tag("token", token)
+                .register(registry)
+                .record(wait);
+    }
+
+    public void registerSchedulerQueue(String priority, Supplier<Number> depth) {
+        Gauge.builder("github.scheduler.queue", depth)
+                .description("GitHub calls waiting in the scheduler for a rate-limit permit")
+                .tag("priority", priority)
+                .register(registry);
+    }
+
+    public void recordSchedulerWait(String priority, Duration wait) {
+        Timer.builder("github.scheduler.wait")
+                .description("Time a GitHub call waited in the scheduler for its turn and a permit")
+                .tag("priority", priority)
+                .register(registry)
+                .record(wait);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * One HTTP attempt against GitHub; {@code status} is the HTTP status or the kind of transport failure.
+     */
+    public void recordRequest(Timer.Sample sample, String kind, String status) {
+        sample.stop(Timer.builder("github.request")
+                .description("Single GitHub search API call")
+                .tags("kind", kind, "status", status)
+                .register(registry));
+    }
+
+    /**
+     * A whole page fetch: limiter waits, retries and backoff included.
+     */
+    public void recordFetch(Timer.Sample sample, String kind, String outcome) {
+        sample.stop(Timer.builder("github.fetch")
+                .description("GitHub page fetch including rate-limit waits, retries and backoff")
+                .tags("kind", kind, "outcome", outcome)
+                .register(registry));
+    }
+
+    public void countRetry(int status) {
+        Counter.builder("github.retries")
+                .description("GitHub calls retried, by the status that triggered the retry")
+                .tag("status", String.valueOf(status))
+                .register(registry)
+                .increment();
+    }
+
+    public void registerCircuitBreaker(GithubCircuitBreaker circuitBreaker) {
+        Gauge.builder("github.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("GitHub circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(registry);
+    }
+
+    public void countCircuitRejection() {
+        Counter.builder("github.circuit.rejected")
+                .description("GitHub page fetches failed fast or served stale because the circuit was open")
+                .register(registry)
+                .increment();
+    }
+
+    public void countHedge(String outcome) {
+        Counter.builder("github.hedges")
+                .description("Duplicate GitHub calls sent for slow attempts, and how many answered first")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void countFallback(String reason) {
+        Counter.builder("github.fallbacks")
+                .description("GitHub pages replaced by an empty result instead of failing the search")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordNormalization(String source, Duration duration) {
+        Timer.builder("search.normalization")
+                .description("Time until the star/fork normalization bounds were available")
+                .tag("source", source)
+                .register(registry)
+                .record(duration);
+    }
+
+    public void recordScoring(Duration duration) {
+        Timer.builder("search.scoring")
+                .description("Scoring and sorting of a search result set")
+                .register(registry)
+                .record(duration);
+    }
+
+    public void countDuplicates(int repositories) {
+        Counter.builder("search.duplicates")
+                .description("Repositories dropped because they appeared on more than one page")
+                .baseUnit("repositories")
+                .register(registry)
+                .increment(repositories);
+    }
+
+    public void countDeepSearchPartition() {
+        Counter.builder("search.deep.partitions")
+                .description("Created-date ranges a deep search was split into")
+                .register(registry)
+                .increment();
+    }
+
+    public void countDeepSearchTruncated(int repositories) {
+        Counter.builder("search.deep.truncated")
+                .description("Repositories out of reach of a deep search: over the cap on a single creation day")
+                .baseUnit("repositories")
+                .register(registry)
+                .increment(repositories);
+    }
+
+    public void countDriftRefetch(int recovered) {
+        Counter.builder("search.drift.refetches")
+                .description("Boundary pages re-read after GitHub's ordering shifted during a search")
+                .register(registry)
+                .increment();
+        Counter.builder("search.drift.recovered")
+                .description("Repositories recovered by re-reading a boundary page")
+                .baseUnit("repositories")
+                .register(registry)
+                .increment(recovered);
+    }
+
+    public void countDeltaRefresh(String outcome) {
+        Counter.builder("search.refresh.delta")
+                .description("Refreshes served from repositories pushed since the last one, instead of a full search")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void countRefresh(String outcome) {
+        Counter.builder("search.refresh")
+                .description("Popular searches re-run in the background before their cached results expired")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordResultSize(int repositories) {
+        resultSize.record(repositories);
+    }
+
+    public static String statusOf(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException ex) {
+            return String.valueOf(ex.getStatusCode().value());
+        }
+        if (throwable instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (throwable instanceof WebClientRequestException) {
+            return "io_error";
+        }
+        return "error";
+    }
+}
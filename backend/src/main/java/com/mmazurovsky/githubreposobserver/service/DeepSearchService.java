@@ -0,0 +1,14 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesDeepSearchIn;
+
+import reactor.core.publisher.Mono;
+
+public interface DeepSearchService {
+    /**
+     * Fetches every repository matching the search, up to {@code maxRepositories}, past GitHub's cap of
+     * 1000 results per query.
+     */
+    Mono<GithubRepositorySearchResults> searchRepositories(RepositoriesDeepSearchIn request);
+}
@@ -0,0 +1,169 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.dto.CreatedDateRange;
+import com.mmazurovsky.githubreposobserver.dto.dto.CreatedRange;
+import com.mmazurovsky.githubreposobserver.dto.dto.CreatedTimeRange;
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchFilter;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesDeepSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+import com.mmazurovsky.githubreposobserver.util.Const;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Searches past GitHub's cap of 1000 results per query by partitioning it into {@code created:} date ranges
+ * that each stay under the cap. A range's first page doubles as the probe: its {@code total_count} either
+ * shows the range fits, and the page is kept, or tells how many slices to cut it into, assuming an even
+ * spread; slices that turn out denser are cut again, down to UTC time slices of a single busy day. Partitions
+ * are planned newest first and planning stops once {@code maxRepositories} are covered, while the pages of
+ * planned partitions are already being fetched. All calls go through the regular client, so the call
+ * scheduler keeps them within the rate budget. A page the client could only replace with its empty fallback
+ * fails the search rather than silently dropping a whole range from it.
+ */
+@Service
+public class DeepSearchServiceImpl implements DeepSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(DeepSearchServiceImpl.class);
+
+    public static final ResponseStatusException DEEP_SEARCH_INCOMPLETE_EXCEPTION =
+        new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search service could not return every date range");
+
+    private static final int RESULTS_PER_PAGE = 100;
+    private static final int MAX_PAGES = 10;
+    private static final int MAX_RESULTS = RESULTS_PER_PAGE * MAX_PAGES;
+    // Slices aim below the cap so an uneven spread does not immediately force another split
+    private static final double TARGET_FILL = 0.8;
+    private static final LocalDate GITHUB_LAUNCH = LocalDate.of(2007, 10, 1);
+
+    private final GithubClient githubClient;
+    private final SearchMetrics metrics;
+    private final int concurrency;
+    private final Clock clock;
+
+    @Autowired
+    public DeepSearchServiceImpl(
+            GithubClient githubClient,
+            SearchMetrics metrics,
+            @Value("${search.deep.concurrency:4}") int concurrency
+    ) {
+        this(githubClient, metrics, concurrency, Clock.systemUTC());
+    }
+
+    DeepSearchServiceImpl(GithubClient githubClient, SearchMetrics metrics, int concurrency, Clock clock) {
+        this.githubClient = githubClient;
+        this.metrics = metrics;
+        this.concurrency = concurrency;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<GithubRepositorySearchResults> searchRepositories(RepositoriesDeepSearchIn request) {
+        final RepositoriesSearchIn query = new RepositoriesSearchIn(request.keywords(), null, request.language(), null, null);
+        final int maxRepositories = request.maxRepositories() != null ? request.maxRepositories() : Const.DEFAULT_DEEP_MAX_REPOSITORIES;
+        final CreatedDateRange range = new CreatedDateRange(
+                request.earliestCreatedDate() != null ? request.earliestCreatedDate() : GITHUB_LAUNCH,
+                LocalDate.now(clock)
+        );
+
+        return Flux.defer(() -> {
+            logger.info("🔭 Deep search over {}, up to {} repositories", range.qualifier(), maxRepositories);
+            AtomicInteger remaining = new AtomicInteger(maxRepositories);
+            return partitions(query, range)
+                    .takeWhile(partition -> remaining.get() > 0)
+                    .map(partition -> partition.covering(remaining.getAndAdd(-partition.size())))
+                    .flatMap(partition -> pages(query, partition), concurrency);
+        })
+                // Partitions don't overlap, so a repeat can only be ordering drift within one of them
+                .collect(() -> new PageMerger(maxRepositories), (merger, page) -> merger.addMissing(page.items()))
+                .map(merger -> {
+                    List<GithubRepositoryItemResponse> repositories = merger.repositories();
+                    NormalizationStats stats = NormalizationStatsServiceImpl.deriveFromRepositories(repositories);
+                    int maxForks = repositories.stream().mapToInt(GithubRepositoryItemResponse::forksCount).max().orElse(0);
+                    logger.info("✅ Deep search completed: repositories={}", repositories.size());
+                    return new GithubRepositorySearchResults(stats.minStars(), stats.maxStars(), stats.minForks(), maxForks, repositories);
+                });
+    }
+
+    /**
+     * Ranges under the cap with their first page, newest first. Sibling slices are probed concurrently.
+     */
+    private Flux<Partition> partitions(RepositoriesSearchIn query, CreatedRange range) {
+        return fetchPage(query, range, 1).flatMapMany(firstPage -> {
+            int total = firstPage.totalCount();
+            if (total == 0) {
+                return Flux.empty();
+            }
+            if (total <= MAX_RESULTS || !isDivisible(range)) {
+                if (total > MAX_RESULTS) {
+                    logger.warn("⚠️ {} repositories in {}, only the first {} are reachable", total, range.qualifier(), MAX_RESULTS);
+                    metrics.countDeepSearchTruncated(total - MAX_RESULTS);
+                }
+                metrics.countDeepSearchPartition();
+                return Flux.just(new Partition(range, firstPage, Math.min(total, MAX_RESULTS)));
+            }
+            int slices = (int) Math.ceil(total / (MAX_RESULTS * TARGET_FILL));
+            logger.debug("🔪 {} repositories in {}, cutting it into {} slices", total, range.qualifier(), slices);
+            return Flux.fromIterable(split(range, slices))
+                    .flatMapSequential(slice -> partitions(query, slice), concurrency);
+        });
+    }
+
+    private static boolean isDivisible(CreatedRange range) {
+        return !(range instanceof CreatedTimeRange times) || times.seconds() > 1;
+    }
+
+    // GitHub's created: qualifier takes timestamps too, so a single day is cut by time of day
+    private static List<? extends CreatedRange> split(CreatedRange range, int slices) {
+        return switch (range) {
+            case CreatedDateRange days when days.days() == 1 -> CreatedTimeRange.ofDay(days.from()).split(slices);
+            case CreatedDateRange days -> days.split(slices);
+            case CreatedTimeRange times -> times.split(slices);
+        };
+    }
+
+    private Flux<GithubRepositorySearchResponse> pages(RepositoriesSearchIn query, Partition partition) {
+        int pages = (partition.size() + RESULTS_PER_PAGE - 1) / RESULTS_PER_PAGE;
+        return Flux.range(2, pages - 1)
+                .flatMap(page -> fetchPage(query, partition.range(), page), concurrency)
+                .startWith(partition.firstPage());
+    }
+
+    private Mono<GithubRepositorySearchResponse> fetchPage(RepositoriesSearchIn query, CreatedRange range, int page) {
+        return githubClient.searchRepositories(query, SearchFilter.created(range), page, RESULTS_PER_PAGE, "forks", "desc")
+                .flatMap(response -> {
+                    if (GithubClient.isFallback(response)) {
+                        // Reading it as empty would drop the range, or part of it, from the result unnoticed
+                        logger.warn("⚠️ Page {} of {} unavailable, failing the deep search", page, range.qualifier());
+                        return Mono.error(DEEP_SEARCH_INCOMPLETE_EXCEPTION);
+                    }
+                    return Mono.just(response);
+                });
+    }
+
+    private record Partition(CreatedRange range, GithubRepositorySearchResponse firstPage, int size) {
+
+        // The last partition within the budget only needs as many pages as the budget has left
+        Partition covering(int budget) {
+            return budget >= size ? this : new Partition(range, firstPage, budget);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import java.util.List;
+import java.util.Map;
+
+import com.mmazurovsky.githubreposobserver.cache.NormalizationStatsKey;
+import com.mmazurovsky.githubreposobserver.cache.Timestamped;
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface NormalizationStatsService {
+    /**
+     * @param pages the search's pages as they arrive; subscribed more than once, so it must replay them
+     */
+    Mono<NormalizationStats> resolveStats(
+            RepositoriesSearchIn request,
+            Flux<GithubRepositorySearchResponse> pages,
+            Mono<List<GithubRepositoryItemResponse>> fetchedRepositories,
+            int fetchCapacity
+    );
+
+    /**
+     * Fresh bounds with their original write times, for the snapshot store.
+     */
+    Map<NormalizationStatsKey, Timestamped<NormalizationStats>> snapshot();
+}
@@ -0,0 +1,231 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.mmazurovsky.githubreposobserver.cache.NormalizationStatsKey;
+import com.mmazurovsky.githubreposobserver.cache.SearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.cache.Timestamped;
+import com.mmazurovsky.githubreposobserver.client.CallPriority;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+import com.mmazurovsky.githubreposobserver.util.SingleFlight;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+/**
+ * Resolves the star/fork bounds used for score normalization without holding up the page fan-out.
+ * Bounds are served from a cache that outlives search results (they move slowly). Otherwise three
+ * concurrent {@code per_page=1} lookups start alongside the page fan-out, and are dropped if the first
+ * page shows the fetched pages cover the whole result set, in which case the bounds are derived from
+ * them. Bounds are only cached when nothing they came from was a fallback page. Bounds persisted by the
+ * {@link SearchSnapshotStore} count as cached until their original TTL runs out.
+ */
+@Service
+public class NormalizationStatsServiceImpl implements NormalizationStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(NormalizationStatsServiceImpl.class);
+    private static final String SOURCE_CACHE = "cache";
+    private static final String SOURCE_PAGES = "pages";
+    private static final String SOURCE_GITHUB = "github";
+
+    private final GithubClient githubClient;
+    private final SearchMetrics metrics;
+    private final SearchSnapshotStore snapshotStore;
+    private final Duration ttl;
+    private final Cache<NormalizationStatsKey, Timestamped<NormalizationStats>> statsCache;
+    private final SingleFlight<NormalizationStatsKey, ResolvedStats> inFlightLookups = new SingleFlight<>(CallPriority::of);
+
+    public NormalizationStatsServiceImpl(
+            GithubClient githubClient,
+            SearchMetrics metrics,
+            SearchSnapshotStore snapshotStore,
+            @Value("${search.stats-cache.ttl:1h}") Duration ttl,
+            @Value("${search.stats-cache.max-entries:10000}") long maxEntries
+    ) {
+        this.githubClient = githubClient;
+        this.metrics = metrics;
+        this.snapshotStore = snapshotStore;
+        this.ttl = ttl;
+        this.statsCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Mono<NormalizationStats> resolveStats(
+            RepositoriesSearchIn request,
+            Flux<GithubRepositorySearchResponse> pages,
+            Mono<List<GithubRepositoryItemResponse>> fetchedRepositories,
+            int fetchCapacity
+    ) {
+        final NormalizationStatsKey key = NormalizationStatsKey.from(request);
+
+        return Mono.deferContextual(context -> {
+            final long start = System.nanoTime();
+            NormalizationStats cached = cachedStats(key);
+            if (cached != null) {
+                logger.debug("📊 Normalization stats cache hit for {}", key);
+                metrics.recordNormalization(SOURCE_CACHE, Duration.ofNanos(System.nanoTime() - start));
+                return Mono.just(cached);
+            }
+
+            // Started before page 1 is in, in the caller's context so the lookups queue at its priority. Searches
+            // sharing the bounds share one set of lookups, which is only cancelled once none of them needs it
+            final Sinks.One<ResolvedStats> lookedUp = Sinks.one();
+            final Disposable lookups = inFlightLookups.execute(key, () -> lookUp(key, request))
+                    .subscribe(lookedUp::tryEmitValue, lookedUp::tryEmitError, lookedUp::tryEmitEmpty, Context.of(context));
+
+            return pages.next()
+                    .flatMap(page -> {
+                        Mono<ResolvedStats> resolved;
+                        if (coversWholeResultSet(page, fetchCapacity)) {
+                            lookups.dispose();
+                            resolved = Mono.zip(fetchedRepositories, pages.any(GithubClient::isFallback))
+                                    .map(tuple -> new ResolvedStats(deriveFromRepositories(tuple.getT1()), !tuple.getT2()))
+                                    .doOnNext(value -> recordSince(SOURCE_PAGES, start));
+                        } else {
+                            resolved = lookedUp.asMono().doOnNext(value -> recordSince(SOURCE_GITHUB, start));
+                        }
+                        // An empty first page may be a 422 fallback or exhausted retries - don't pin it for the TTL
+                        return page.totalCount() > 0 ? resolved : resolved.map(ResolvedStats::uncacheable);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> lookedUp.asMono()
+                            .map(ResolvedStats::uncacheable)
+                            .doOnNext(resolved -> recordSince(SOURCE_GITHUB, start))))
+                    .doOnNext(resolved -> {
+                        if (resolved.cacheable()) {
+                            statsCache.put(key, Timestamped.now(resolved.stats()));
+                        } else {
+                            logger.debug("📊 Not caching normalization stats for {}: a page or lookup fell back", key);
+                        }
+                    })
+                    .map(ResolvedStats::stats)
+                    .doFinally(signal -> lookups.dispose());
+        });
+    }
+
+    @Override
+    public Map<NormalizationStatsKey, Timestamped<NormalizationStats>> snapshot() {
+        return statsCache.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue().isFresh(ttl))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private @Nullable NormalizationStats cachedStats(NormalizationStatsKey key) {
+        Timestamped<NormalizationStats> entry = statsCache.getIfPresent(key);
+        if (entry == null && snapshotStore.isEnabled()) {
+            entry = snapshotStore.findStats(key).orElse(null);
+            if (entry != null && entry.isFresh(ttl)) {
+                statsCache.put(key, entry);
+            }
+        }
+        return entry != null && entry.isFresh(ttl) ? entry.value() : null;
+    }
+
+    private void recordSince(String source, long startNanos) {
+        metrics.recordNormalization(source, Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private static boolean coversWholeResultSet(GithubRepositorySearchResponse firstPage, int fetchCapacity) {
+        // A fallback first page yields empty results either way; looking the bounds up would only add calls
+        return (!firstPage.incompleteResults() || GithubClient.isFallback(firstPage)) && firstPage.totalCount() <= fetchCapacity;
+    }
+
+    static NormalizationStats deriveFromRepositories(List<GithubRepositoryItemResponse> repositories) {
+        if (repositories.isEmpty()) {
+            return new NormalizationStats(0, 0, 0);
+        }
+
+        int minStars = Integer.MAX_VALUE;
+        int maxStars = Integer.MIN_VALUE;
+        int minForks = Integer.MAX_VALUE;
+        for (GithubRepositoryItemResponse repository : repositories) {
+            minStars = Math.min(minStars, repository.stargazersCount());
+            maxStars = Math.max(maxStars, repository.stargazersCount());
+            minForks = Math.min(minForks, repository.forksCount());
+        }
+        logger.debug("📊 Normalization stats derived from {} fetched repositories", repositories.size());
+        return new NormalizationStats(minStars, maxStars, minForks);
+    }
+
+    // A search that missed the cache just before another one filled it doesn't look the bounds up again
+    private Mono<ResolvedStats> lookUp(NormalizationStatsKey key, RepositoriesSearchIn request) {
+        NormalizationStats cached = cachedStats(key);
+        return cached != null ? Mono.just(new ResolvedStats(cached, false)) : fetchFromGithub(request);
+    }
+
+    private Mono<ResolvedStats> fetchFromGithub(RepositoriesSearchIn request) {
+        logger.debug("📊 Fetching normalization values concurrently with pagination...");
+
+        return Mono.zip(
+                fetchSingleValue(request, "stars", "asc", "min stars"),
+                fetchSingleValue(request, "stars", "desc", "max stars"),
+                fetchSingleValue(request, "forks", "asc", "min forks")
+        ).map(values -> {
+            NormalizationStats stats = new NormalizationStats(values.getT1().value(), values.getT2().value(), values.getT3().value());
+            boolean fellBack = values.getT1().fellBack() || values.getT2().fellBack() || values.getT3().fellBack();
+            return new ResolvedStats(stats, !fellBack);
+        });
+    }
+
+    private Mono<LookedUpValue> fetchSingleValue(RepositoriesSearchIn request, String sortBy, String order, String description) {
+        var singlePageRequest = new RepositoriesSearchIn(
+                request.keywords(),
+                request.earliestCreatedDate(),
+                request.language(),
+                1, // Only need 1 page for normalization values
+                null
+        );
+
+        return Mono.defer(() -> githubClient.searchRepositories(singlePageRequest, 1, 1, sortBy, order))
+                .map(response -> {
+                    if (response.items().isEmpty()) {
+                        logger.debug("⚠️ No results found for {}", description);
+                        return new LookedUpValue(0, GithubClient.isFallback(response));
+                    }
+
+                    int value = extractValue(response.items().get(0), sortBy);
+                    logger.debug("📈 {} found: {}", description, value);
+                    return new LookedUpValue(value, false);
+                });
+    }
+
+    private int extractValue(GithubRepositoryItemResponse item, String sortBy) {
+        return switch (sortBy) {
+            case "stars" -> item.stargazersCount();
+            case "forks" -> item.forksCount();
+            default -> throw new IllegalArgumentException("Unknown sort field: " + sortBy);
+        };
+    }
+
+    private record LookedUpValue(int value, boolean fellBack) {}
+
+    /**
+     * @param cacheable none of the pages or lookups the stats came from was a fallback page
+     */
+    private record ResolvedStats(NormalizationStats stats, boolean cacheable) {
+        ResolvedStats uncacheable() {
+            return new ResolvedStats(stats, false);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.util.LongHashSet;
+
+/**
+ * Merges search pages by repository id. GitHub's ordering can shift while pages are fetched
+ * concurrently, so a repository pushed across a page boundary shows up on both pages. When that
+ * happens, another repository has moved the other way and is missing from the page above the boundary.
+ * Not thread-safe; pages arrive one at a time from the sequential fan-out.
+ */
+final class PageMerger {
+    private static final int NO_DRIFT = 0;
+
+    private final LongHashSet seenIds;
+    private final List<GithubRepositoryItemResponse> repositories;
+    private int duplicates;
+    private int fallbackPages;
+    private int driftBoundaryPage = NO_DRIFT;
+
+    PageMerger(int expectedRepositories) {
+        this.seenIds = new LongHashSet(expectedRepositories);
+        this.repositories = new ArrayList<>(expectedRepositories);
+    }
+
+    void add(int page, List<GithubRepositoryItemResponse> items) {
+        for (GithubRepositoryItemResponse item : items) {
+            if (seenIds.add(item.id())) {
+                repositories.add(item);
+            } else {
+                duplicates++;
+                // The first boundary found is the one worth re-reading: it is closest to the top results
+                if (driftBoundaryPage == NO_DRIFT && page > 1) {
+                    driftBoundaryPage = page - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a page that came back as the client's fallback page: its repositories are missing from the set.
+     */
+    void addFallback() {
+        fallbackPages++;
+    }
+
+    /**
+     * Adds a re-read page's repositories that were missed; the ones already merged are expected, not duplicates.
+     */
+    int addMissing(List<GithubRepositoryItemResponse> items) {
+        int added = 0;
+        for (GithubRepositoryItemResponse item : items) {
+            if (seenIds.add(item.id())) {
+                repositories.add(item);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    List<GithubRepositoryItemResponse> repositories() {
+        return repositories;
+    }
+
+    int duplicates() {
+        return duplicates;
+    }
+
+    boolean isIncomplete() {
+        return fallbackPages > 0;
+    }
+
+    boolean hasDrifted() {
+        return driftBoundaryPage != NO_DRIFT;
+    }
+
+    /**
+     * The page above the first boundary a repository was seen crossing.
+     */
+    int driftBoundaryPage() {
+        return driftBoundaryPage;
+    }
+}
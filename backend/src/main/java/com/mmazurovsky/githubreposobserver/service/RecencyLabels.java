@@ -0,0 +1,69 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.mmazurovsky.githubreposobserver.util.EpochDays;
+
+/**
+ * "3 months ago"-style labels for every day of the last 50 years, relative to one fixed day. Built once
+ * per calendar day, after which a label is an array lookup by age in days.
+ */
+final class RecencyLabels {
+    static final String UNKNOWN = "Unknown";
+    static final String TODAY = "Today";
+
+    private static final int TABLE_DAYS = 50 * 366;
+
+    private final long today;
+    private final String[] labelsByAge;
+
+    private RecencyLabels(LocalDate today) {
+        this.today = today.toEpochDay();
+        this.labelsByAge = new String[TABLE_DAYS];
+        // Consecutive days mostly share a label, so each distinct label is kept once
+        Map<String, String> distinct = new HashMap<>();
+        for (int age = 0; age < TABLE_DAYS; age++) {
+            String label = describe(today.minusDays(age), today);
+            labelsByAge[age] = distinct.computeIfAbsent(label, key -> key);
+        }
+    }
+
+    static RecencyLabels asOf(LocalDate today) {
+        return new RecencyLabels(today);
+    }
+
+    long today() {
+        return today;
+    }
+
+    String label(int epochDay) {
+        if (epochDay == EpochDays.UNKNOWN) {
+            return UNKNOWN;
+        }
+        long age = today - epochDay;
+        if (age <= 0) {
+            return TODAY;
+        }
+        if (age < TABLE_DAYS) {
+            return labelsByAge[(int) age];
+        }
+        return describe(LocalDate.ofEpochDay(epochDay), LocalDate.ofEpochDay(today));
+    }
+
+    private static String describe(LocalDate updatedDate, LocalDate today) {
+        Period period = Period.between(updatedDate, today);
+
+        if (period.getYears() > 0) {
+            return period.getYears() + " year" + (period.getYears() > 1 ? "s" : "") + " ago";
+        } else if (period.getMonths() > 0) {
+            return period.getMonths() + " month" + (period.getMonths() > 1 ? "s" : "") + " ago";
+        } else if (period.getDays() > 0) {
+            return period.getDays() + " day" + (period.getDays() > 1 ? "s" : "") + " ago";
+        } else {
+            return TODAY;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mmazurovsky.githubreposobserver.cache.PopularSearches;
+import com.mmazurovsky.githubreposobserver.cache.SearchCacheKey;
+import com.mmazurovsky.githubreposobserver.cache.SearchResultsCache;
+import com.mmazurovsky.githubreposobserver.client.CallPriority;
+import com.mmazurovsky.githubreposobserver.client.GithubTokenPool;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+import com.mmazurovsky.githubreposobserver.util.SpaceSaving.HeavyHitter;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Re-runs the most popular searches shortly before their cached results expire, so the users asking for
+ * them keep getting cache hits instead of waiting out a full fan-out. Refreshes run one at a time and only
+ * while the token pool has budget that no caller is queued for, keeping {@code search.refresh.reserved-budget}
+ * requests back for interactive traffic; when the budget is not there the refresh is skipped, not queued.
+ */
+@Component
+public class RefreshAheadScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadScheduler.class);
+    // Worst case besides the pages themselves: the three per_page=1 normalization lookups
+    private static final int NORMALIZATION_REQUESTS = 3;
+    private static final String CALLER = "refresh-ahead";
+
+    private final SearchAndScoringService searchAndScoringService;
+    private final SearchResultsCache searchResultsCache;
+    private final PopularSearches popularSearches;
+    private final GithubTokenPool tokenPool;
+    private final SearchMetrics metrics;
+    private final boolean enabled;
+    private final int topQueries;
+    private final int minHits;
+    private final Duration ahead;
+    private final int reservedBudget;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RefreshAheadScheduler(
+            SearchAndScoringService searchAndScoringService,
+            SearchResultsCache searchResultsCache,
+            PopularSearches popularSearches,
+            GithubTokenPool tokenPool,
+            SearchMetrics metrics,
+            @Value("${search.refresh.enabled:true}") boolean enabled,
+            @Value("${search.refresh.top-queries:20}") int topQueries,
+            @Value("${search.refresh.min-hits:3}") int minHits,
+            @Value("${search.refresh.ahead:1m}") Duration ahead,
+            @Value("${search.refresh.reserved-budget:10}") int reservedBudget
+    ) {
+        this.searchAndScoringService = searchAndScoringService;
+        this.searchResultsCache = searchResultsCache;
+        this.popularSearches = popularSearches;
+        this.tokenPool = tokenPool;
+        this.metrics = metrics;
+        this.enabled = enabled;
+        this.topQueries = topQueries;
+        this.minHits = minHits;
+        this.ahead = ahead;
+        this.reservedBudget = reservedBudget;
+    }
+
+    @Scheduled(
+            initialDelayString = "${search.refresh.interval:15s}",
+            fixedDelayString = "${search.refresh.interval:15s}"
+    )
+    public void refreshExpiring() {
+        // A slow round is not stacked on: the next tick re-evaluates once it is done
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        List<SearchCacheKey> candidates = expiringPopularSearches();
+        if (candidates.isEmpty()) {
+            running.set(false);
+            return;
+        }
+        logger.debug("🔄 Refresh-ahead: {} popular searches about to expire", candidates.size());
+        Flux.fromIterable(candidates)
+                .concatMap(this::refreshIfIdle)
+                .doFinally(signal -> running.set(false))
+                .subscribe();
+    }
+
+    /**
+     * Popular searches, most popular first, whose cached results expire within {@code search.refresh.ahead}.
+     */
+    List<SearchCacheKey> expiringPopularSearches() {
+        return popularSearches.top(topQueries).stream()
+                .filter(hitter -> hitter.guaranteedCount() >= minHits)
+                .map(HeavyHitter::key)
+                .filter(key -> searchResultsCache.remainingTtl(key)
+                        .filter(remaining -> remaining.compareTo(ahead) <= 0)
+                        .isPresent())
+                .toList();
+    }
+
+    private Mono<Void> refreshIfIdle(SearchCacheKey key) {
+        return Mono.defer(() -> {
+            int idleBudget = tokenPool.idleBudget();
+            if (idleBudget < key.maxPages() + NORMALIZATION_REQUESTS + reservedBudget) {
+                logger.debug("🔄 Refresh-ahead skipped for {}: only {} requests of idle budget", key, idleBudget);
+                metrics.countRefresh(SearchMetrics.REFRESH_NO_BUDGET);
+                return Mono.empty();
+            }
+            return searchAndScoringService.refresh(key.toRequest())
+                    .doOnSuccess(results -> {
+                        logger.debug("🔄 Refreshed {} ahead of expiry", key);
+                        metrics.countRefresh(SearchMetrics.REFRESH_REFRESHED);
+                    })
+                    .onErrorResume(ex -> {
+                        logger.warn("⚠️ Refresh-ahead failed for {}: {}", key, ex.getMessage());
+                        metrics.countRefresh(SearchMetrics.REFRESH_FAILED);
+                        return Mono.empty();
+                    })
+                    .contextWrite(CallPriority.context(CallPriority.PREFETCH, CALLER))
+                    .then();
+        });
+    }
+}
@@ -7,4 +7,7 @@ import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
 
 public interface ScoringService {
     List<RepositoriesSearchOut> convertAndEnrichWithScoreMany(GithubRepositorySearchResults searchResults);
+
+    // The first `limit` rows of convertAndEnrichWithScoreMany, without ranking or converting the rest
+    List<RepositoriesSearchOut> convertAndEnrichWithScoreTop(GithubRepositorySearchResults searchResults, int limit);
 }
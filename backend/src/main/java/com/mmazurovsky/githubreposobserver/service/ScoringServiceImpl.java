@@ -1,68 +1,75 @@
 package com.mmazurovsky.githubreposobserver.service;
 
-import java.text.DecimalFormat;
 import java.time.LocalDate;
-import java.time.OffsetDateTime;
-import java.time.Period;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 
 import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
-import com.mmazurovsky.githubreposobserver.dto.dto.RepositoryScorePair;
 import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
 import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
-
+import com.mmazurovsky.githubreposobserver.util.EpochDays;
+
+/**
+ * Scores a result set with primitive arrays: one pass computes the weighted raw scores and their bounds,
+ * a stable index merge sort orders them (or a bounded heap picks the top K when a limit is given), and
+ * popularity strings come from a table of the 101 possible one-decimal values. Recency labels come from a
+ * per-day {@link RecencyLabels} table over the epoch days decoded with each item. Apart from the output
+ * rows nothing is allocated per repository, and no mutable state is shared between concurrent calls.
+ */
 @Service
 public class ScoringServiceImpl implements ScoringService {
     private static final double STARS_WEIGHT = 0.5;
     private static final double FORKS_WEIGHT = 1.0;
-    private static final DecimalFormat SCORE_FORMAT = new DecimalFormat("#.#");
     public static final int SCORE_RANGE_MIN = 0;
     public static final int SCORE_RANGE_MAX = 10;
 
+    // "0", "0.1", ... "9.9", "10": one entry per tenth of the score range
+    private static final String[] SCORE_LABELS = scoreLabels();
+
+    private volatile RecencyLabels recencyLabels = RecencyLabels.asOf(LocalDate.now());
+
     @Override
     public List<RepositoriesSearchOut> convertAndEnrichWithScoreMany(GithubRepositorySearchResults searchResults) {
+        return convertAndEnrichWithScoreTop(searchResults, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<RepositoriesSearchOut> convertAndEnrichWithScoreTop(GithubRepositorySearchResults searchResults, int limit) {
         List<GithubRepositoryItemResponse> repositories = searchResults.repositories();
+        int size = repositories.size();
 
-        if (repositories.isEmpty()) {
+        if (size == 0 || limit <= 0) {
             return List.of();
         }
 
-        // Calculate raw weighted scores for all repositories and create pairs
-        List<RepositoryScorePair> rawScoredPairs = repositories.stream()
-            .map(repo -> new RepositoryScorePair(repo, calculateRawScoreBasedOnStarsAndForks(repo, searchResults)))
-            .toList();
-
-        // Find min and max raw scores for final normalization
-        double minRawScore = rawScoredPairs.stream()
-            .mapToDouble(RepositoryScorePair::score)
-            .min()
-            .orElse(0.0);
-        double maxRawScore = rawScoredPairs.stream()
-            .mapToDouble(RepositoryScorePair::score)
-            .max()
-            .orElse(10.0);
-
-        // Normalize scores and sort by score descending
-        return rawScoredPairs.stream()
-            .map(pair -> {
-                double normalizedScore = normalizeToRange(
-                    pair.score(),
-                    minRawScore,
-                    maxRawScore,
-                    SCORE_RANGE_MIN,
-                    SCORE_RANGE_MAX
-                );
-                return new RepositoryScorePair(pair.repository(), normalizedScore);
-            })
-            .sorted(Comparator.comparing(RepositoryScorePair::score).reversed())
-            .map(pair -> {
-                String formattedScore = formatScore(pair.score());
-                return convertToRepositoriesSearchOut(pair.repository(), formattedScore);
-            })
-            .toList();
+        // Raw weighted scores and their bounds in a single pass
+        double[] scores = new double[size];
+        double minRawScore = Double.POSITIVE_INFINITY;
+        double maxRawScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            double rawScore = calculateRawScoreBasedOnStarsAndForks(repositories.get(i), searchResults);
+            scores[i] = rawScore;
+            minRawScore = Math.min(minRawScore, rawScore);
+            maxRawScore = Math.max(maxRawScore, rawScore);
+        }
+
+        for (int i = 0; i < size; i++) {
+            scores[i] = normalizeToRange(scores[i], minRawScore, maxRawScore, SCORE_RANGE_MIN, SCORE_RANGE_MAX);
+        }
+
+        // Both orderings are stable, so equal scores keep GitHub's order and a top-K is a prefix of the full ranking
+        int[] order = limit < size ? selectTopByScore(scores, limit) : sortAllByScore(scores);
+
+        RecencyLabels recency = recencyLabels();
+        RepositoriesSearchOut[] rows = new RepositoriesSearchOut[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            int index = order[rank];
+            rows[rank] = convertToRepositoriesSearchOut(repositories.get(index), formatScore(scores[index]), recency);
+        }
+        return Collections.unmodifiableList(Arrays.asList(rows));
     }
 
     private double calculateRawScoreBasedOnStarsAndForks(GithubRepositoryItemResponse repo, GithubRepositorySearchResults searchResults) {
@@ -101,62 +108,142 @@ public class ScoringServiceImpl implements ScoringService {
         return Math.max(rangeMin, Math.min(rangeMax, normalizedValue)); // Clamp to range
     }
 
-    private String formatScore(double score) {
-        // Round to 1 decimal place
-        double rounded = Math.round(score * 10.0) / 10.0;
+    private static int[] sortAllByScore(double[] scores) {
+        int[] order = new int[scores.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        sortByScoreDescending(order, scores);
+        return order;
+    }
+
+    /**
+     * The {@code limit} best indices, best first, via a bounded heap whose root is the worst one kept:
+     * O(n log k) and no work at all for the repositories that are not returned.
+     */
+    static int[] selectTopByScore(double[] scores, int limit) {
+        int[] heap = new int[limit];
+        for (int i = 0; i < limit; i++) {
+            heap[i] = i;
+        }
+        for (int i = limit / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i, limit, scores);
+        }
+        for (int i = limit; i < scores.length; i++) {
+            if (ranksBelow(heap[0], i, scores)) {
+                heap[0] = i;
+                siftDown(heap, 0, limit, scores);
+            }
+        }
 
-        // If it's a whole number, return without decimal
-        if (rounded == Math.floor(rounded)) {
-            return String.valueOf((int) rounded);
-        } else {
-            return SCORE_FORMAT.format(rounded);
+        // Repeatedly removing the worst fills the ranking from the back
+        int[] ranked = new int[limit];
+        for (int size = limit; size > 0; size--) {
+            ranked[size - 1] = heap[0];
+            heap[0] = heap[size - 1];
+            siftDown(heap, 0, size - 1, scores);
         }
+        return ranked;
     }
 
-    private RepositoriesSearchOut convertToRepositoriesSearchOut(GithubRepositoryItemResponse item, String popularityScore) {
-        LocalDate updatedDate = parseUpdatedAt(item.updatedAt());
-        String recency = calculateRecency(updatedDate);
+    private static void siftDown(int[] heap, int position, int size, double[] scores) {
+        int index = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranksBelow(heap[child + 1], heap[child], scores)) {
+                child++;
+            }
+            if (!ranksBelow(heap[child], index, scores)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = index;
+    }
 
-        return new RepositoriesSearchOut(
-            item.name(),
-            item.htmlUrl(),
-            item.language(),
-            item.created() != null ? item.created().toLocalDate() : null,
-            item.stargazersCount(),
-            item.forksCount(),
-            recency,
-            popularityScore
-        );
+    // Lower score, or the same score further down GitHub's order
+    private static boolean ranksBelow(int index, int other, double[] scores) {
+        return scores[index] < scores[other] || (scores[index] == scores[other] && index > other);
     }
 
-    private LocalDate parseUpdatedAt(String updatedAt) {
-        if (updatedAt == null || updatedAt.trim().isEmpty()) {
-            return null;
+    /**
+     * Bottom-up merge sort of {@code order} by {@code scores[order[i]]}, highest first.
+     */
+    static void sortByScoreDescending(int[] order, double[] scores) {
+        int size = order.length;
+        int[] source = order;
+        int[] target = new int[size];
+
+        for (int width = 1; width < size; width *= 2) {
+            for (int from = 0; from < size; from += 2 * width) {
+                int middle = Math.min(from + width, size);
+                int to = Math.min(from + 2 * width, size);
+                int left = from;
+                int right = middle;
+                for (int out = from; out < to; out++) {
+                    // Take from the right run only when strictly greater, which keeps the sort stable
+                    if (right < to && (left >= middle || scores[source[right]] > scores[source[left]])) {
+                        target[out] = source[right++];
+                    } else {
+                        target[out] = source[left++];
+                    }
+                }
+            }
+            int[] merged = target;
+            target = source;
+            source = merged;
         }
-        try {
-            return OffsetDateTime.parse(updatedAt).toLocalDate();
-        } catch (Exception e) {
-            // If parsing fails, return null and recency will show as "Unknown"
-            return null;
+
+        if (source != order) {
+            System.arraycopy(source, 0, order, 0, size);
         }
     }
 
-    private String calculateRecency(LocalDate updatedDate) {
-        if (updatedDate == null) {
-            return "Unknown";
+    static String formatScore(double score) {
+        // Round to 1 decimal place; scores are clamped to the score range, so this is a table index
+        return SCORE_LABELS[(int) Math.round(score * 10.0)];
+    }
+
+    private static String[] scoreLabels() {
+        String[] labels = new String[SCORE_RANGE_MAX * 10 + 1];
+        for (int tenths = 0; tenths < labels.length; tenths++) {
+            // Whole numbers are rendered without a decimal
+            labels[tenths] = tenths % 10 == 0
+                    ? String.valueOf(tenths / 10)
+                    : (tenths / 10) + "." + (tenths % 10);
         }
+        return labels;
+    }
 
-        LocalDate now = LocalDate.now();
-        Period period = Period.between(updatedDate, now);
-
-        if (period.getYears() > 0) {
-            return period.getYears() + " year" + (period.getYears() > 1 ? "s" : "") + " ago";
-        } else if (period.getMonths() > 0) {
-            return period.getMonths() + " month" + (period.getMonths() > 1 ? "s" : "") + " ago";
-        } else if (period.getDays() > 0) {
-            return period.getDays() + " day" + (period.getDays() > 1 ? "s" : "") + " ago";
-        } else {
-            return "Today";
+    private RecencyLabels recencyLabels() {
+        LocalDate today = LocalDate.now();
+        RecencyLabels labels = recencyLabels;
+        if (labels.today() != today.toEpochDay()) {
+            // Racing rebuilds at midnight are harmless: both produce the same table
+            labels = RecencyLabels.asOf(today);
+            recencyLabels = labels;
         }
+        return labels;
+    }
+
+    private RepositoriesSearchOut convertToRepositoriesSearchOut(
+            GithubRepositoryItemResponse item,
+            String popularityScore,
+            RecencyLabels recency
+    ) {
+        return new RepositoriesSearchOut(
+            item.name(),
+            item.htmlUrl(),
+            item.language(),
+            EpochDays.toLocalDate(item.createdEpochDay()),
+            item.stargazersCount(),
+            item.forksCount(),
+            recency.label(item.updatedEpochDay()),
+            popularityScore
+        );
     }
 }
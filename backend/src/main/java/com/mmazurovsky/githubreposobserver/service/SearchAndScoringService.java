@@ -2,9 +2,34 @@ package com.mmazurovsky.githubreposobserver.service;
 
 import java.util.List;
 
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesDeepSearchIn;
 import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesBatchResult;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchFrame;
 import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public interface SearchAndScoringService {
-    List<RepositoriesSearchOut> searchAndOutputRepositoriesWithScores(RepositoriesSearchIn request);
+    Mono<List<RepositoriesSearchOut>> searchAndOutputRepositoriesWithScores(RepositoriesSearchIn request);
+
+    Flux<RepositoriesSearchFrame> streamRepositoriesWithScores(RepositoriesSearchIn request);
+
+    /**
+     * Runs many searches as one plan and emits each query's result as soon as it is ready.
+     */
+    Flux<RepositoriesBatchResult> searchBatch(List<RepositoriesSearchIn> queries);
+
+    /**
+     * Scores every repository matching the search instead of the first pages of one ranking; see
+     * {@link DeepSearchService}. Not cached: results this large are rarely asked for twice.
+     */
+    Mono<List<RepositoriesSearchOut>> deepSearchAndOutputRepositoriesWithScores(RepositoriesDeepSearchIn request);
+
+    /**
+     * Re-runs a search regardless of what is cached and stores the fresh result; does not count towards
+     * the request's popularity.
+     */
+    Mono<List<RepositoriesSearchOut>> refresh(RepositoriesSearchIn request);
 }
@@ -1,26 +1,302 @@
 package com.mmazurovsky.githubreposobserver.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.mmazurovsky.githubreposobserver.cache.DeltaRefreshBases;
+import com.mmazurovsky.githubreposobserver.cache.NormalizationStatsKey;
+import com.mmazurovsky.githubreposobserver.cache.PopularSearches;
+import com.mmazurovsky.githubreposobserver.cache.SearchCacheKey;
+import com.mmazurovsky.githubreposobserver.cache.SearchResultsCache;
+import com.mmazurovsky.githubreposobserver.client.CallPriority;
 import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchProgress;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesDeepSearchIn;
 import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesBatchResult;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchFrame;
 import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+import com.mmazurovsky.githubreposobserver.util.Const;
+import com.mmazurovsky.githubreposobserver.util.SingleFlight;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 public class SearchAndScoringServiceImpl implements SearchAndScoringService {
+    private static final Logger logger = LoggerFactory.getLogger(SearchAndScoringServiceImpl.class);
+
+    public static final ResponseStatusException SEARCH_DEADLINE_EXCEEDED_EXCEPTION =
+        new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Search took too long");
+
     private final SearchService searchService;
+    private final DeepSearchService deepSearchService;
     private final ScoringService scoringService;
+    private final SearchResultsCache searchResultsCache;
+    private final PopularSearches popularSearches;
+    private final DeltaRefreshBases deltaBases;
+    private final SearchMetrics metrics;
+    private final int streamUpdateSize;
+    private final int batchConcurrency;
+    private final Duration deadline;
+    private final Duration deepDeadline;
+    // Partitioned by scheduling class: a shared search runs at its first caller's priority
+    private final SingleFlight<SearchCacheKey, List<RepositoriesSearchOut>> inFlightSearches = new SingleFlight<>(CallPriority::of);
 
-    public SearchAndScoringServiceImpl(SearchService searchService, ScoringService scoringService) {
+    public SearchAndScoringServiceImpl(
+            SearchService searchService,
+            DeepSearchService deepSearchService,
+            ScoringService scoringService,
+            SearchResultsCache searchResultsCache,
+            PopularSearches popularSearches,
+            DeltaRefreshBases deltaBases,
+            SearchMetrics metrics,
+            @Value("${search.stream.update-size:20}") int streamUpdateSize,
+            @Value("${search.batch.concurrency:4}") int batchConcurrency,
+            @Value("${search.deadline:60s}") Duration deadline,
+            @Value("${search.deep.deadline:10m}") Duration deepDeadline
+    ) {
         this.searchService = searchService;
+        this.deepSearchService = deepSearchService;
         this.scoringService = scoringService;
+        this.searchResultsCache = searchResultsCache;
+        this.popularSearches = popularSearches;
+        this.deltaBases = deltaBases;
+        this.metrics = metrics;
+        this.streamUpdateSize = streamUpdateSize;
+        this.batchConcurrency = batchConcurrency;
+        this.deadline = deadline;
+        this.deepDeadline = deepDeadline;
+    }
+
+    @Override
+    public Mono<List<RepositoriesSearchOut>> searchAndOutputRepositoriesWithScores(RepositoriesSearchIn request) {
+        final SearchCacheKey cacheKey = SearchCacheKey.from(request);
+
+        return Mono.defer(() -> {
+            popularSearches.record(cacheKey);
+            return withinDeadline(cachedOrSearch(cacheKey, request));
+        });
+    }
+
+    @Override
+    public Mono<List<RepositoriesSearchOut>> deepSearchAndOutputRepositoriesWithScores(RepositoriesDeepSearchIn request) {
+        final int limit = request.limit() != null ? request.limit() : Integer.MAX_VALUE;
+
+        return deepSearchService.searchRepositories(request)
+                .map(results -> {
+                    List<RepositoriesSearchOut> scored = score(results, limit);
+                    metrics.recordResultSize(scored.size());
+                    return scored;
+                })
+                .timeout(deepDeadline, Mono.error(SEARCH_DEADLINE_EXCEEDED_EXCEPTION));
+    }
+
+    @Override
+    public Flux<RepositoriesBatchResult> searchBatch(List<RepositoriesSearchIn> queries) {
+        return Flux.defer(() -> {
+            List<BatchSearch> searches = planBatch(queries);
+            logger.info("📦 Batch of {} queries planned as {} searches", queries.size(), searches.size());
+
+            // Searches over the same keywords, language and date are queued next to each other so they run side
+            // by side and their normalization lookups and overlapping pages are coalesced in flight; at most
+            // batchConcurrency searches run at a time, however large a group is
+            Map<NormalizationStatsKey, List<BatchSearch>> groups = new LinkedHashMap<>();
+            for (BatchSearch search : searches) {
+                groups.computeIfAbsent(NormalizationStatsKey.from(search.request()), key -> new ArrayList<>()).add(search);
+            }
+            return Flux.fromIterable(groups.values())
+                    .concatMapIterable(group -> group)
+                    .flatMap(search -> runBatchSearch(search, queries), batchConcurrency);
+        });
+    }
+
+    /**
+     * Collapses the batch into distinct searches. Queries that differ only in {@code limit} share one search
+     * run at the largest limit, since a smaller top-K is a prefix of a larger one.
+     */
+    private static List<BatchSearch> planBatch(List<RepositoriesSearchIn> queries) {
+        Map<SearchCacheKey, List<Integer>> positions = new LinkedHashMap<>();
+        Map<SearchCacheKey, Integer> limits = new LinkedHashMap<>();
+        for (int index = 0; index < queries.size(); index++) {
+            SearchCacheKey key = SearchCacheKey.from(queries.get(index));
+            SearchCacheKey unlimited = key.withLimit(null);
+            positions.computeIfAbsent(unlimited, ignored -> new ArrayList<>()).add(index);
+            limits.merge(unlimited, resultLimit(key), Math::max);
+        }
+
+        List<BatchSearch> searches = new ArrayList<>(positions.size());
+        positions.forEach((unlimited, indexes) -> {
+            int limit = limits.get(unlimited);
+            SearchCacheKey key = unlimited.withLimit(limit == Integer.MAX_VALUE ? null : limit);
+            searches.add(new BatchSearch(key, key.toRequest(), List.copyOf(indexes)));
+        });
+        return searches;
+    }
+
+    private Flux<RepositoriesBatchResult> runBatchSearch(BatchSearch search, List<RepositoriesSearchIn> queries) {
+        return withinDeadline(cachedOrSearch(search.key(), search.request()))
+                .defaultIfEmpty(List.of())
+                .flatMapIterable(results -> search.positions().stream()
+                        .map(index -> {
+                            RepositoriesSearchIn query = queries.get(index);
+                            int limit = Math.min(results.size(), resultLimit(SearchCacheKey.from(query)));
+                            return RepositoriesBatchResult.success(index, query, results.subList(0, limit));
+                        })
+                        .toList())
+                .onErrorResume(ex -> {
+                    logger.warn("⚠️ Batch search for {} failed: {}", search.key(), ex.getMessage());
+                    String error = ex instanceof ResponseStatusException statusException && statusException.getReason() != null
+                            ? statusException.getReason()
+                            : Const.MSG_SEARCH_FAILED;
+                    return Flux.fromIterable(search.positions())
+                            .map(index -> RepositoriesBatchResult.failure(index, queries.get(index), error));
+                });
+    }
+
+    private Mono<List<RepositoriesSearchOut>> cachedOrSearch(SearchCacheKey cacheKey, RepositoriesSearchIn request) {
+        final Optional<List<RepositoriesSearchOut>> cached = searchResultsCache.get(cacheKey);
+        if (cached.isPresent()) {
+            logger.debug("⚡ Cache hit for {}", cacheKey);
+            return Mono.just(cached.get());
+        }
+        return search(cacheKey, request);
     }
 
     @Override
-    public List<RepositoriesSearchOut> searchAndOutputRepositoriesWithScores(RepositoriesSearchIn request) {
-        final GithubRepositorySearchResults searchResults = searchService.searchRepositories(request);
-        return scoringService.convertAndEnrichWithScoreMany(searchResults);
+    public Mono<List<RepositoriesSearchOut>> refresh(RepositoriesSearchIn request) {
+        final SearchCacheKey cacheKey = SearchCacheKey.from(request);
+        return Mono.defer(() -> withinDeadline(deltaBases.get(cacheKey)
+                .map(base -> deltaRefresh(cacheKey, request, base))
+                .orElse(Mono.empty())
+                .switchIfEmpty(Mono.defer(() -> fullRefresh(cacheKey, request)))));
+    }
+
+    /**
+     * Merges the repositories pushed since the last refresh into its result set. Re-scoring is skipped when
+     * nothing changed; otherwise the whole set is re-scored, since scores are relative to all of it. A failed
+     * delta leaves both the base and the cached results as they were, so the next delta covers its window.
+     */
+    private Mono<List<RepositoriesSearchOut>> deltaRefresh(SearchCacheKey cacheKey, RepositoriesSearchIn request, DeltaRefreshBases.Base base) {
+        final Instant fetchedAt = deltaBases.now();
+        final Optional<List<RepositoriesSearchOut>> cached = searchResultsCache.get(cacheKey);
+        return searchService.refreshRepositories(request, base.results(), deltaBases.since(base))
+                .map(results -> {
+                    deltaBases.putDelta(cacheKey, base, results, fetchedAt);
+                    if (results == base.results() && cached.isPresent()) {
+                        metrics.countDeltaRefresh(SearchMetrics.DELTA_UNCHANGED);
+                        searchResultsCache.put(cacheKey, cached.get());
+                        return cached.get();
+                    }
+                    metrics.countDeltaRefresh(results == base.results() ? SearchMetrics.DELTA_UNCHANGED : SearchMetrics.DELTA_MERGED);
+                    return scoreAndCache(cacheKey, results);
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> metrics.countDeltaRefresh(SearchMetrics.DELTA_TOO_LARGE)));
     }
+
+    private Mono<List<RepositoriesSearchOut>> fullRefresh(SearchCacheKey cacheKey, RepositoriesSearchIn request) {
+        final Instant fetchedAt = deltaBases.now();
+        return inFlightSearches.execute(cacheKey, () -> searchService.searchRepositories(request)
+                .doOnNext(results -> {
+                    if (!results.incomplete()) {
+                        deltaBases.putFull(cacheKey, results, fetchedAt);
+                    }
+                })
+                .map(results -> scoreAndCache(cacheKey, results)));
+    }
+
+    /**
+     * Bounds how long one caller waits, queueing for GitHub permits included. Timing out cancels the
+     * caller's subscription, which stops the search unless another caller is still sharing it.
+     */
+    private <T> Mono<T> withinDeadline(Mono<T> search) {
+        return search.timeout(deadline, Mono.error(SEARCH_DEADLINE_EXCEEDED_EXCEPTION));
+    }
+
+    private Mono<List<RepositoriesSearchOut>> search(SearchCacheKey cacheKey, RepositoriesSearchIn request) {
+        // Identical searches arriving while one is already running share its GitHub calls and result. A caller
+        // that missed the cache just before a finished search filled it looks again before starting another
+        return inFlightSearches.execute(cacheKey, () -> searchResultsCache.get(cacheKey)
+                .map(Mono::just)
+                .orElseGet(() -> searchService.searchRepositories(request)
+                        .map(results -> scoreAndCache(cacheKey, results))));
+    }
+
+    private List<RepositoriesSearchOut> scoreAndCache(SearchCacheKey cacheKey, GithubRepositorySearchResults results) {
+        List<RepositoriesSearchOut> scored = score(results, resultLimit(cacheKey));
+        metrics.recordResultSize(scored.size());
+        cacheIfComplete(cacheKey, results, scored);
+        return scored;
+    }
+
+    // Results missing a page are served to the caller that waited for them, but the next one searches again
+    private void cacheIfComplete(SearchCacheKey cacheKey, GithubRepositorySearchResults results, List<RepositoriesSearchOut> scored) {
+        if (results.incomplete()) {
+            logger.debug("⚠️ Not caching incomplete results for {}", cacheKey);
+            return;
+        }
+        searchResultsCache.put(cacheKey, scored);
+    }
+
+    @Override
+    public Flux<RepositoriesSearchFrame> streamRepositoriesWithScores(RepositoriesSearchIn request) {
+        final SearchCacheKey cacheKey = SearchCacheKey.from(request);
+
+        return Flux.defer(() -> {
+            popularSearches.record(cacheKey);
+            final Optional<List<RepositoriesSearchOut>> cached = searchResultsCache.get(cacheKey);
+            if (cached.isPresent()) {
+                logger.debug("⚡ Cache hit for {}", cacheKey);
+                return Flux.just(RepositoriesSearchFrame.complete(cacheKey.maxPages(), cached.get()));
+            }
+
+            // Every frame's timeout ends at the same instant, so the deadline bounds the whole stream and not
+            // just the wait for the next frame
+            final long start = System.nanoTime();
+            final Mono<Long> expiry = Mono.defer(() -> Mono.delay(
+                    Duration.ofNanos(Math.max(0, deadline.toNanos() - (System.nanoTime() - start)))));
+
+            // Streams are not coalesced: each subscriber needs its own update frames as pages arrive
+            return searchService.streamRepositories(request)
+                    .map(progress -> toFrame(cacheKey, progress))
+                    .timeout(expiry, frame -> expiry, Flux.error(SEARCH_DEADLINE_EXCEEDED_EXCEPTION));
+        });
+    }
+
+    private RepositoriesSearchFrame toFrame(SearchCacheKey cacheKey, SearchProgress progress) {
+        if (progress.complete()) {
+            List<RepositoriesSearchOut> scored = score(progress.results(), resultLimit(cacheKey));
+            metrics.recordResultSize(scored.size());
+            cacheIfComplete(cacheKey, progress.results(), scored);
+            return RepositoriesSearchFrame.complete(progress.totalPages(), scored);
+        }
+        List<RepositoriesSearchOut> top = score(progress.results(), Math.min(streamUpdateSize, resultLimit(cacheKey)));
+        return RepositoriesSearchFrame.update(progress.pagesReceived(), progress.totalPages(), top);
+    }
+
+    private static int resultLimit(SearchCacheKey cacheKey) {
+        return cacheKey.limit() != null ? cacheKey.limit() : Integer.MAX_VALUE;
+    }
+
+    private List<RepositoriesSearchOut> score(GithubRepositorySearchResults results, int limit) {
+        long start = System.nanoTime();
+        List<RepositoriesSearchOut> scored = scoringService.convertAndEnrichWithScoreTop(results, limit);
+        metrics.recordScoring(Duration.ofNanos(System.nanoTime() - start));
+        return scored;
+    }
+
+    private record BatchSearch(SearchCacheKey key, RepositoriesSearchIn request, List<Integer> positions) {}
 }
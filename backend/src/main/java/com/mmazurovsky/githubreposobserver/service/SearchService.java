@@ -1,8 +1,28 @@
 package com.mmazurovsky.githubreposobserver.service;
 
+import java.time.Instant;
+
 import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchProgress;
 import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 public interface SearchService {
-    GithubRepositorySearchResults searchRepositories(RepositoriesSearchIn request);
+    Mono<GithubRepositorySearchResults> searchRepositories(RepositoriesSearchIn request);
+
+    Flux<SearchProgress> streamRepositories(RepositoriesSearchIn request);
+
+    /**
+     * Brings {@code previous} up to date with only the repositories pushed since {@code since}. Returns the
+     * same instance when nothing changed, and completes empty when the delta would cost as many calls as
+     * searching again. Fails when GitHub could not serve a page of the delta, which must not pass for an
+     * empty one.
+     */
+    Mono<GithubRepositorySearchResults> refreshRepositories(
+            RepositoriesSearchIn request,
+            GithubRepositorySearchResults previous,
+            Instant since
+    );
 }
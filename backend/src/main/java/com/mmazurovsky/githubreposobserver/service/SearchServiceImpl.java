@@ -1,134 +1,319 @@
 package com.mmazurovsky.githubreposobserver.service;
 
-import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.mmazurovsky.githubreposobserver.client.GithubClient;
 import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchFilter;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchProgress;
 import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
 import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+import com.mmazurovsky.githubreposobserver.util.Const;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 @Service
 public class SearchServiceImpl implements SearchService {
     private static final Logger logger = LoggerFactory.getLogger(SearchServiceImpl.class);
+
+    public static final ResponseStatusException DELTA_PAGE_UNAVAILABLE_EXCEPTION =
+        new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search service could not return changed repositories");
+
     private static final int RESULTS_PER_PAGE = 100;
-    private static final Duration RATE_LIMIT_DELAY = Duration.ofMillis(50);
-    private static final int DEFAULT_MAX_PAGES = 5;
 
     private final GithubClient githubClient;
-    private final ExecutorService virtualThreadExecutor;
+    private final NormalizationStatsService normalizationStatsService;
+    private final SearchMetrics metrics;
+    private final boolean refetchOnDrift;
 
-    public SearchServiceImpl(GithubClient githubClient) {
+    public SearchServiceImpl(
+            GithubClient githubClient,
+            NormalizationStatsService normalizationStatsService,
+            SearchMetrics metrics,
+            @Value("${search.dedup.refetch-on-drift:true}") boolean refetchOnDrift
+    ) {
         this.githubClient = githubClient;
-        this.virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.normalizationStatsService = normalizationStatsService;
+        this.metrics = metrics;
+        this.refetchOnDrift = refetchOnDrift;
+    }
+
+    @Override
+    public Mono<GithubRepositorySearchResults> searchRepositories(RepositoriesSearchIn request) {
+        int maxPages = resolveMaxPages(request);
+
+        return Mono.defer(() -> {
+            logger.info("🔍 Searching repositories: concurrent pagination with normalization stats resolved alongside");
+
+            // One fan-out shared by the repository list and the stats resolver (which needs page 1's total_count)
+            FanOut fanOut = new FanOut();
+            Flux<GithubRepositorySearchResponse> pages = fanOut.share(fetchPagesConcurrently(request, maxPages));
+            Mono<PageMerger> merged = fanOut.share(collectRepositories(request, pages, maxPages));
+            Mono<NormalizationStats> stats = resolveStats(request, pages, merged.map(PageMerger::repositories), maxPages);
+
+            return Mono.zip(stats, merged)
+                    .map(tuple -> toSearchResults(tuple.getT1(), tuple.getT2()))
+                    .doFinally(signal -> fanOut.end());
+        });
     }
 
     @Override
-    public GithubRepositorySearchResults searchRepositories(RepositoriesSearchIn request) {
-        int maxPages = request.maxPages() != null ? request.maxPages() : DEFAULT_MAX_PAGES;
+    public Flux<SearchProgress> streamRepositories(RepositoriesSearchIn request) {
+        int maxPages = resolveMaxPages(request);
+
+        return Flux.defer(() -> {
+            logger.info("🔍 Streaming repositories: emitting a snapshot per page");
+
+            FanOut fanOut = new FanOut();
+            Flux<GithubRepositorySearchResponse> pages = fanOut.share(fetchPagesConcurrently(request, maxPages));
+            Mono<PageMerger> merged = fanOut.share(collectRepositories(request, pages, maxPages));
+            Mono<NormalizationStats> stats = fanOut.share(resolveStats(request, pages, merged.map(PageMerger::repositories), maxPages));
+            AtomicReference<NormalizationStats> resolvedStats = new AtomicReference<>();
+            PageMerger snapshotMerger = new PageMerger(maxPages * RESULTS_PER_PAGE);
+
+            // Until the real bounds are known, snapshots are normalized against the repositories seen so far.
+            // The last page goes straight into the complete snapshot rather than a near-identical update.
+            Flux<SearchProgress> updates = pages
+                    .take(Math.max(0, maxPages - 1))
+                    .index((index, page) -> {
+                        snapshotMerger.add(index.intValue() + 1, page.items());
+                        List<GithubRepositoryItemResponse> seen = List.copyOf(snapshotMerger.repositories());
+                        return new SearchProgress(
+                                toSearchResults(currentStats(resolvedStats, seen), seen),
+                                index.intValue() + 1,
+                                maxPages,
+                                false
+                        );
+                    });
+            Mono<SearchProgress> complete = Mono.zip(stats, merged)
+                    .map(tuple -> new SearchProgress(toSearchResults(tuple.getT1(), tuple.getT2()), maxPages, maxPages, true));
+
+            return Flux.merge(stats.doOnNext(resolvedStats::set).then(Mono.<SearchProgress>empty()), updates)
+                    .concatWith(complete)
+                    .doFinally(signal -> fanOut.end());
+        });
+    }
+
+    @Override
+    public Mono<GithubRepositorySearchResults> refreshRepositories(
+            RepositoriesSearchIn request,
+            GithubRepositorySearchResults previous,
+            Instant since
+    ) {
+        int maxPages = resolveMaxPages(request);
+        SearchFilter filter = SearchFilter.of(request).pushedSince(since);
+
+        return Mono.defer(() -> fetchDeltaPage(request, filter, 1))
+                .flatMap(firstPage -> {
+                    int deltaPages = (firstPage.totalCount() + RESULTS_PER_PAGE - 1) / RESULTS_PER_PAGE;
+                    if (firstPage.incompleteResults() || deltaPages >= maxPages) {
+                        logger.debug("🔄 {} repositories pushed since {}, not cheaper than a full refresh", firstPage.totalCount(), since);
+                        return Mono.empty();
+                    }
+                    return Flux.range(2, Math.max(0, deltaPages - 1))
+                            .flatMapSequential(page -> fetchDeltaPage(request, filter, page))
+                            .startWith(firstPage)
+                            .flatMapIterable(GithubRepositorySearchResponse::items)
+                            .collectList()
+                            .map(changed -> mergeDelta(previous, changed, maxPages * RESULTS_PER_PAGE));
+                });
+    }
+
+    /**
+     * Replaces changed repositories by id and ranks newcomers in, keeping the set to what a full search would
+     * return: the top {@code capacity} by forks. The bounds only widen to cover the changed repositories;
+     * tightening them again is left to the next full refresh.
+     */
+    static GithubRepositorySearchResults mergeDelta(
+            GithubRepositorySearchResults previous,
+            List<GithubRepositoryItemResponse> changed,
+            int capacity
+    ) {
+        Map<Long, GithubRepositoryItemResponse> merged = new LinkedHashMap<>();
+        previous.repositories().forEach(repository -> merged.put(repository.id(), repository));
+        int updates = 0;
+        int minStars = previous.minStars();
+        int maxStars = previous.maxStars();
+        int minForks = previous.minForks();
+        for (GithubRepositoryItemResponse repository : changed) {
+            if (!repository.equals(merged.put(repository.id(), repository))) {
+                updates++;
+                minStars = Math.min(minStars, repository.stargazersCount());
+                maxStars = Math.max(maxStars, repository.stargazersCount());
+                minForks = Math.min(minForks, repository.forksCount());
+            }
+        }
+        if (updates == 0) {
+            return previous;
+        }
+
+        // Stable, so repositories with equal forks keep GitHub's order
+        List<GithubRepositoryItemResponse> repositories = merged.values().stream()
+                .sorted(Comparator.comparingInt(GithubRepositoryItemResponse::forksCount).reversed())
+                .limit(capacity)
+                .toList();
+        logger.debug("🔄 Delta merged {} changed repositories", updates);
+        int maxForks = repositories.stream().mapToInt(GithubRepositoryItemResponse::forksCount).max().orElse(0);
+        return new GithubRepositorySearchResults(minStars, maxStars, minForks, maxForks, repositories);
+    }
+
+    private static int resolveMaxPages(RepositoriesSearchIn request) {
+        return Math.max(0, request.maxPages() != null ? request.maxPages() : Const.DEFAULT_MAX_PAGES);
+    }
+
+    private Mono<PageMerger> collectRepositories(
+            RepositoriesSearchIn request,
+            Flux<GithubRepositorySearchResponse> pages,
+            int maxPages
+    ) {
+        return pages.index()
+                .collect(() -> new PageMerger(maxPages * RESULTS_PER_PAGE), (merger, page) -> {
+                    if (GithubClient.isFallback(page.getT2())) {
+                        merger.addFallback();
+                    }
+                    merger.add(page.getT1().intValue() + 1, page.getT2().items());
+                })
+                .flatMap(merger -> refetchOnDrift && merger.hasDrifted() ? refetchBoundary(request, merger) : Mono.just(merger))
+                .doOnNext(merger -> {
+                    if (merger.duplicates() > 0) {
+                        logger.debug("🔁 Dropped {} repositories repeated across pages", merger.duplicates());
+                        metrics.countDuplicates(merger.duplicates());
+                    }
+                    if (merger.isIncomplete()) {
+                        logger.warn("⚠️ Some pages of {} could not be fetched, results are incomplete", request.keywords());
+                    }
+                });
+    }
+
+    // Ordering shifted mid fan-out: re-read the page above the boundary to pick up what moved across it
+    private Mono<PageMerger> refetchBoundary(RepositoriesSearchIn request, PageMerger merger) {
+        int page = merger.driftBoundaryPage();
+        return fetchPage(request, page)
+                .map(response -> {
+                    int recovered = merger.addMissing(response.items());
+                    logger.debug("🔁 Ordering drifted at page {}: re-read it and recovered {} repositories", page, recovered);
+                    metrics.countDriftRefetch(recovered);
+                    return merger;
+                })
+                .defaultIfEmpty(merger);
+    }
+
+    private Mono<NormalizationStats> resolveStats(
+            RepositoriesSearchIn request,
+            Flux<GithubRepositorySearchResponse> pages,
+            Mono<List<GithubRepositoryItemResponse>> repositories,
+            int maxPages
+    ) {
+        return normalizationStatsService.resolveStats(request, pages, repositories, maxPages * RESULTS_PER_PAGE);
+    }
 
-        logger.info("🔍 Searching repositories with hybrid approach: sequential normalization + concurrent pagination");
+    private static NormalizationStats currentStats(
+            AtomicReference<NormalizationStats> resolvedStats,
+            List<GithubRepositoryItemResponse> seen
+    ) {
+        NormalizationStats resolved = resolvedStats.get();
+        return resolved != null ? resolved : NormalizationStatsServiceImpl.deriveFromRepositories(seen);
+    }
 
-        var normalizationValues = fetchNormalizationValues(request);
-        var repositories = fetchRepositoriesConcurrently(request, maxPages);
+    private GithubRepositorySearchResults toSearchResults(NormalizationStats stats, PageMerger merged) {
+        return toSearchResults(stats, merged.repositories(), merged.isIncomplete());
+    }
 
+    private GithubRepositorySearchResults toSearchResults(
+            NormalizationStats stats,
+            List<GithubRepositoryItemResponse> repositories
+    ) {
+        return toSearchResults(stats, repositories, false);
+    }
+
+    private GithubRepositorySearchResults toSearchResults(
+            NormalizationStats stats,
+            List<GithubRepositoryItemResponse> repositories,
+            boolean incomplete
+    ) {
         int maxForks = repositories.stream()
                 .mapToInt(GithubRepositoryItemResponse::forksCount)
                 .max()
                 .orElse(0);
 
         logger.info("✅ Search completed: minStars={}, maxStars={}, minForks={}, maxForks={}, repositories={}",
-                normalizationValues.minStars(), normalizationValues.maxStars(),
-                normalizationValues.minForks(), maxForks, repositories.size());
+                stats.minStars(), stats.maxStars(), stats.minForks(), maxForks, repositories.size());
 
         return new GithubRepositorySearchResults(
-                normalizationValues.minStars(),
-                normalizationValues.maxStars(),
-                normalizationValues.minForks(),
+                stats.minStars(),
+                stats.maxStars(),
+                stats.minForks(),
                 maxForks,
-                repositories
+                repositories,
+                incomplete
         );
     }
 
-    private NormalizationValues fetchNormalizationValues(RepositoriesSearchIn request) {
-        logger.debug("📊 Fetching normalization values sequentially with rate limiting...");
-
-        int minStars = fetchSingleValue(request, "stars", "asc", "min stars");
-        rateLimitDelay();
-
-        int minForks = fetchSingleValue(request, "forks", "asc", "min forks");
-        rateLimitDelay();
+    private Flux<GithubRepositorySearchResponse> fetchPagesConcurrently(RepositoriesSearchIn request, int maxPages) {
+        logger.debug("🚀 Fetching {} pages concurrently", maxPages);
 
-        int maxStars = fetchSingleValue(request, "stars", "desc", "max stars");
-        rateLimitDelay();
-
-        return new NormalizationValues(minStars, maxStars, minForks);
+        // Pages are merged as they arrive but emitted in page order so scoring ties stay stable
+        return Flux.range(1, maxPages)
+                .flatMapSequential(page -> fetchPage(request, page));
     }
 
-    private List<GithubRepositoryItemResponse> fetchRepositoriesConcurrently(RepositoriesSearchIn request, int maxPages) {
-        logger.debug("🚀 Fetching {} pages concurrently using virtual threads", maxPages);
+    private Mono<GithubRepositorySearchResponse> fetchPage(RepositoriesSearchIn request, int page) {
+        logger.debug("📄 Fetching page {}", page);
 
-        return IntStream.rangeClosed(1, maxPages)
-                .mapToObj(page -> fetchPageAsync(request, page))
-                .map(CompletableFuture::join)
-                .flatMap(List::stream)
-                .toList();
+        return githubClient.searchRepositories(request, page, RESULTS_PER_PAGE, "forks", "desc")
+                .doOnNext(response -> logger.debug("✓ Completed page {} with {} items", page, response.items().size()));
     }
 
-    private CompletableFuture<List<GithubRepositoryItemResponse>> fetchPageAsync(RepositoriesSearchIn request, int page) {
-        return CompletableFuture.supplyAsync(() -> {
-            logger.debug("📄 Fetching page {} using virtual thread", page);
-
-            var response = githubClient.searchRepositories(request, page, RESULTS_PER_PAGE, "forks", "desc");
+    private Mono<GithubRepositorySearchResponse> fetchDeltaPage(RepositoriesSearchIn request, SearchFilter filter, int page) {
+        logger.debug("📄 Fetching delta page {}", page);
 
-            logger.debug("✓ Completed page {} with {} items", page, response.items().size());
-            return response.items();
-        }, virtualThreadExecutor);
+        return githubClient.searchRepositories(request, filter, page, RESULTS_PER_PAGE, "forks", "desc")
+                .flatMap(response -> {
+                    if (GithubClient.isFallback(response)) {
+                        // Merging it as "nothing pushed" would move the next delta past pushes that were never seen
+                        logger.warn("⚠️ Delta page {} unavailable, failing the refresh", page);
+                        return Mono.error(DELTA_PAGE_UNAVAILABLE_EXCEPTION);
+                    }
+                    return Mono.just(response);
+                });
     }
 
-        private int fetchSingleValue(RepositoriesSearchIn request, String sortBy, String order, String description) {
-        var singlePageRequest = new RepositoriesSearchIn(
-            request.keywords(),
-            request.earliestCreatedDate(),
-            request.language(),
-            1 // Only need 1 page for normalization values
-    );
-        var response = githubClient.searchRepositories(singlePageRequest, 1, 1, sortBy, order);
+    /**
+     * Scope of one search's shared work. A cached publisher keeps its source running after its subscribers
+     * cancel, so once the search ends (completed, failed or cancelled by a disconnecting client or a
+     * deadline) whatever is still in flight, pages and normalization lookups alike, is cut off here.
+     * Failing fast needs nothing extra: the first fatal page error already cancels its siblings in the merge.
+     */
+    private static final class FanOut {
+        private final Sinks.Empty<Void> ended = Sinks.empty();
 
-        if (response.items().isEmpty()) {
-            logger.debug("⚠️ No results found for {}", description);
-            return 0;
+        <T> Flux<T> share(Flux<T> source) {
+            return source.takeUntilOther(ended.asMono()).cache();
         }
 
-        int value = extractValue(response.items().get(0), sortBy);
-        logger.debug("📈 {} found: {}", description, value);
-        return value;
-    }
-
-    private int extractValue(GithubRepositoryItemResponse item, String sortBy) {
-        return switch (sortBy) {
-            case "stars" -> item.stargazersCount();
-            case "forks" -> item.forksCount();
-            default -> throw new IllegalArgumentException("Unknown sort field: " + sortBy);
-        };
-    }
+        <T> Mono<T> share(Mono<T> source) {
+            return source.takeUntilOther(ended.asMono()).cache();
+        }
 
-    private void rateLimitDelay() {
-        try {
-            Thread.sleep(RATE_LIMIT_DELAY.toMillis());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.warn("⚠️ Rate limit delay interrupted, continuing without delay");
+        void end() {
+            ended.tryEmitEmpty();
         }
     }
-
-    private record NormalizationValues(int minStars, int maxStars, int minForks) {}
 }
@@ -18,9 +18,31 @@ public final class Const {
     public static final String MSG_MAX_PAGES =
             "Max pages to be searched must be less than or equal to 10";
 
+    public static final String MSG_LIMIT =
+            "Limit must be between 1 and 500";
+
+    public static final String MSG_BATCH_SIZE =
+            "A batch must contain between 1 and 50 queries";
+
+    public static final String MSG_MAX_REPOSITORIES =
+            "Max repositories must be between 1 and 50000";
+
+    // --- Error messages ------------------------------------------------------
+    public static final String MSG_SEARCH_FAILED =
+            "Search operation failed";
+
     // --- Regular expressions -------------------------------------------------
     public static final String REGEX_LANGUAGE = "^[a-zA-Z0-9]+$";
 
+    // --- Search defaults -----------------------------------------------------
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    public static final int MAX_BATCH_SIZE = 50;
+
+    public static final int DEFAULT_DEEP_MAX_REPOSITORIES = 10_000;
+
+    public static final int MAX_DEEP_REPOSITORIES = 50_000;
+
     private Const() {
         /* utility class – prevent instantiation */
     }
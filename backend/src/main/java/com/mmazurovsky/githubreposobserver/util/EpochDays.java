@@ -0,0 +1,93 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Dates as days since 1970-01-01 in an {@code int}, decoded straight from GitHub's fixed-layout
+ * ISO-8601 timestamps ({@code 2024-05-17T09:30:12Z}) without going through {@code java.time} parsing.
+ * As with {@link OffsetDateTime#toLocalDate()}, the day is the one written in the timestamp.
+ */
+public final class EpochDays {
+    /**
+     * Missing or unparseable date.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final int DATE_LENGTH = 10;
+
+    private EpochDays() {
+        /* utility class – prevent instantiation */
+    }
+
+    public static int parse(@Nullable CharSequence timestamp) {
+        if (timestamp == null || timestamp.length() < DATE_LENGTH) {
+            return UNKNOWN;
+        }
+        // The date and the separator after it are all that is read
+        char[] head = new char[Math.min(timestamp.length(), DATE_LENGTH + 1)];
+        for (int i = 0; i < head.length; i++) {
+            head[i] = timestamp.charAt(i);
+        }
+        return parse(head, 0, head.length);
+    }
+
+    /**
+     * Reads {@code YYYY-MM-DD}, optionally followed by {@code T} and a time that is not inspected.
+     */
+    public static int parse(char[] chars, int offset, int length) {
+        if (length < DATE_LENGTH
+                || chars[offset + 4] != '-'
+                || chars[offset + 7] != '-'
+                || (length > DATE_LENGTH && chars[offset + DATE_LENGTH] != 'T')) {
+            return UNKNOWN;
+        }
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + 5, 2);
+        int day = digits(chars, offset + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return UNKNOWN;
+        }
+        return epochDay(year, month, day);
+    }
+
+    public static int of(@Nullable OffsetDateTime timestamp) {
+        return timestamp != null ? (int) timestamp.toLocalDate().toEpochDay() : UNKNOWN;
+    }
+
+    public static @Nullable LocalDate toLocalDate(int epochDay) {
+        return epochDay != UNKNOWN ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    // Days from the civil calendar in eras of 400 years (146097 days), shifted so March starts the year
+    private static int epochDay(int year, int month, int day) {
+        int marchYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(marchYear, 400);
+        int yearOfEra = marchYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import java.util.Arrays;
+
+/**
+ * Percentile over the last {@code capacity} samples. The sorted view is rebuilt at most once every
+ * {@code capacity / 8} samples, so reads stay cheap on a hot path. Thread-safe.
+ */
+public final class RollingPercentile {
+
+    private final long[] samples;
+    private final int refreshEvery;
+    private int next;
+    private int size;
+    private int sinceRefresh;
+    private long[] sorted = new long[0];
+
+    public RollingPercentile(int capacity) {
+        this.samples = new long[capacity];
+        this.refreshEvery = Math.max(1, capacity / 8);
+    }
+
+    public synchronized void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        sinceRefresh++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * The given percentile ({@code 0..1}) of the recent samples, or {@code -1} when there are none.
+     */
+    public synchronized long percentile(double percentile) {
+        if (size == 0) {
+            return -1;
+        }
+        if (sorted.length != size || sinceRefresh >= refreshEvery) {
+            sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            sinceRefresh = 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)];
+    }
+}
@@ -0,0 +1,130 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.Nullable;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Coalesces concurrent calls with an equal key into one execution. The first subscriber starts the
+ * supplied {@link Mono}; subscribers arriving while it is in flight share its value, emptiness or
+ * error. The execution is cancelled once every subscriber sharing it has cancelled, so a call nobody
+ * waits for any more stops instead of running to completion. Nothing is retained once the call
+ * completes, so this is not a cache.
+ * <p>
+ * The execution runs in the first subscriber's context. Where that context decides how the work is
+ * treated, such as its scheduling class, a partition function keeps callers whose contexts differ in
+ * that respect from sharing an execution.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<FlightKey<K>, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final Function<ContextView, ?> partition;
+
+    public SingleFlight() {
+        this(context -> null);
+    }
+
+    /**
+     * @param partition only callers whose contexts map to an equal partition share an execution
+     */
+    public SingleFlight(Function<ContextView, ?> partition) {
+        this.partition = partition;
+    }
+
+    public Mono<V> execute(K callKey, Supplier<Mono<V>> supplier) {
+        return Mono.deferContextual(contextView -> {
+            final FlightKey<K> key = new FlightKey<>(callKey, partition.apply(contextView));
+            while (true) {
+                final Flight<V> own = new Flight<>();
+                final Flight<V> existing = inFlight.putIfAbsent(key, own);
+                if (existing == null) {
+                    // Leaves the map before its result is published, so a caller that has seen the result starts afresh
+                    own.start(Mono.defer(supplier).subscribe(
+                            value -> {
+                                inFlight.remove(key, own);
+                                own.result.complete(value);
+                            },
+                            error -> {
+                                inFlight.remove(key, own);
+                                own.result.completeExceptionally(error);
+                            },
+                            () -> {
+                                inFlight.remove(key, own);
+                                own.result.complete(null);
+                            },
+                            Context.of(contextView)
+                    ));
+                    return await(key, own);
+                }
+                // A flight whose last subscriber just left is being cancelled, or one that has just finished and
+                // whose result may already be stale; start a new one instead
+                if (existing.join()) {
+                    coalesced.incrementAndGet();
+                    return await(key, existing);
+                }
+                inFlight.remove(key, existing);
+            }
+        });
+    }
+
+    public long coalescedCount() {
+        return coalesced.get();
+    }
+
+    private Mono<V> await(FlightKey<K> key, Flight<V> flight) {
+        return Mono.fromFuture(flight.result, true)
+                .doOnCancel(() -> {
+                    if (flight.leave()) {
+                        inFlight.remove(key, flight);
+                    }
+                });
+    }
+
+    private record FlightKey<K>(K key, @Nullable Object partition) {}
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        private int waiters = 1;
+        private boolean abandoned;
+        private Disposable execution;
+
+        synchronized void start(Disposable execution) {
+            this.execution = execution;
+            if (abandoned) {
+                execution.dispose();
+            }
+        }
+
+        synchronized boolean join() {
+            if (abandoned || result.isDone()) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * Returns whether this was the last waiter, in which case the execution has been cancelled.
+         */
+        synchronized boolean leave() {
+            if (--waiters > 0 || result.isDone()) {
+                return false;
+            }
+            abandoned = true;
+            if (execution != null) {
+                execution.dispose();
+            }
+            return true;
+        }
+    }
+}
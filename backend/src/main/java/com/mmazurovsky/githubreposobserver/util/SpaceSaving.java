@@ -0,0 +1,98 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch: tracks at most {@code capacity} keys, and when a new key arrives at
+ * a full table it replaces the least counted one and inherits its count as the overestimate. Any key
+ * seen more than {@code n / capacity} times out of {@code n} is guaranteed to be tracked. Counts can be
+ * halved periodically so the sketch follows what is popular now rather than since startup. Thread-safe.
+ */
+public final class SpaceSaving<K> {
+
+    private final int capacity;
+    private final Map<K, Counter> counters;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized void offer(K key) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(1, 0));
+            return;
+        }
+        // Evicting the minimum keeps every heavy hitter's count an upper bound of its true frequency
+        Map.Entry<K, Counter> minimum = null;
+        for (Map.Entry<K, Counter> entry : counters.entrySet()) {
+            if (minimum == null || entry.getValue().count < minimum.getValue().count) {
+                minimum = entry;
+            }
+        }
+        long floor = minimum.getValue().count;
+        counters.remove(minimum.getKey());
+        counters.put(key, new Counter(floor + 1, floor));
+    }
+
+    /**
+     * The most counted keys, most frequent first.
+     */
+    public synchronized List<HeavyHitter<K>> top(int limit) {
+        List<HeavyHitter<K>> hitters = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> hitters.add(new HeavyHitter<>(key, counter.count, counter.error)));
+        hitters.sort(Comparator.comparingLong((HeavyHitter<K> hitter) -> hitter.count()).reversed());
+        return List.copyOf(hitters.subList(0, Math.min(limit, hitters.size())));
+    }
+
+    /**
+     * Halves every count, dropping keys that reach zero.
+     */
+    public synchronized void decay() {
+        Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next();
+            counter.count >>= 1;
+            counter.error >>= 1;
+            if (counter.count == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    /**
+     * A tracked key with its estimated count; the true count lies between {@code count - error} and {@code count}.
+     */
+    public record HeavyHitter<K>(K key, long count, long error) {
+        public long guaranteedCount() {
+            return count - error;
+        }
+    }
+
+    private static final class Counter {
+        long count;
+        long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
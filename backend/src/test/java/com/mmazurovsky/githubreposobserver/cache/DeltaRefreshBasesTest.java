@@ -0,0 +1,52 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+
+class DeltaRefreshBasesTest {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:00:00Z");
+    private static final SearchCacheKey KEY = SearchCacheKey.from(new RepositoriesSearchIn("spring", null, null, null, null));
+    private static final GithubRepositorySearchResults RESULTS = new GithubRepositorySearchResults(0, 0, 0, 0, List.of());
+
+    @Test
+    void since_shouldReachBackByTheOverlap() {
+        DeltaRefreshBases bases = bases(true, NOW);
+        bases.putFull(KEY, RESULTS, NOW.minus(Duration.ofMinutes(20)));
+
+        assertThat(bases.get(KEY)).hasValueSatisfying(base ->
+                assertThat(bases.since(base)).isEqualTo(NOW.minus(Duration.ofMinutes(25))));
+    }
+
+    @Test
+    void get_afterFullEvery_shouldBeEmptyEvenIfDeltasKeptTheBaseCurrent() {
+        DeltaRefreshBases bases = bases(true, NOW);
+        Instant fullAt = NOW.minus(Duration.ofMinutes(61));
+        bases.putFull(KEY, RESULTS, fullAt);
+        bases.putDelta(KEY, new DeltaRefreshBases.Base(RESULTS, fullAt, fullAt), RESULTS, NOW.minus(Duration.ofMinutes(1)));
+
+        assertThat(bases.get(KEY)).isEmpty();
+    }
+
+    @Test
+    void get_whenDisabled_shouldBeEmpty() {
+        DeltaRefreshBases bases = bases(false, NOW);
+        bases.putFull(KEY, RESULTS, NOW);
+
+        assertThat(bases.get(KEY)).isEmpty();
+    }
+
+    private static DeltaRefreshBases bases(boolean enabled, Instant now) {
+        return new DeltaRefreshBases(enabled, Duration.ofMinutes(5), Duration.ofHours(1), 10, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,115 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+
+class MappedSearchSnapshotStoreTest {
+
+    private static final List<RepositoriesSearchOut> ROWS = List.of(
+            new RepositoriesSearchOut("repo", "https://github.com/owner/repo", "Java", LocalDate.of(2020, 1, 1), 10, 5, "Today", "10"),
+            new RepositoriesSearchOut("другой", "https://github.com/owner/other", null, null, 0, 0, null, "0")
+    );
+    private static final SearchCacheKey KEY = SearchCacheKey.from(
+            new RepositoriesSearchIn("Spring Boot", LocalDate.of(2020, 1, 1), "Java", 3, 20));
+    private static final NormalizationStatsKey STATS_KEY = NormalizationStatsKey.from(
+            new RepositoriesSearchIn("Spring Boot", LocalDate.of(2020, 1, 1), "Java", 3, 20));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_shouldBeReadableAfterRestart() {
+        Path file = directory.resolve("store.bin");
+        Timestamped<List<RepositoriesSearchOut>> results = Timestamped.now(ROWS);
+        Timestamped<NormalizationStats> stats = Timestamped.now(new NormalizationStats(1, 900, 2));
+
+        new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1)).write(Map.of(KEY, results), Map.of(STATS_KEY, stats));
+        MappedSearchSnapshotStore restarted = new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1));
+
+        assertThat(restarted.findResults(KEY)).contains(results);
+        assertThat(restarted.findStats(STATS_KEY)).contains(stats);
+        assertThat(restarted.findResults(SearchCacheKey.from(new RepositoriesSearchIn("other", null, null, null, null)))).isEmpty();
+    }
+
+    @Test
+    void write_shouldCarryOverResultsWithinTheResultTtlAndStatsWithinRetention() {
+        Path file = directory.resolve("store.bin");
+        SearchCacheKey oldKey = SearchCacheKey.from(new RepositoriesSearchIn("old", null, null, null, null));
+        SearchCacheKey expiredKey = SearchCacheKey.from(new RepositoriesSearchIn("expired", null, null, null, null));
+        NormalizationStatsKey expiredStatsKey = NormalizationStatsKey.from(new RepositoriesSearchIn("expired", null, null, null, null));
+        long twentyMinutesAgo = System.currentTimeMillis() - Duration.ofMinutes(20).toMillis();
+        long twoHoursAgo = System.currentTimeMillis() - Duration.ofHours(2).toMillis();
+        new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1)).write(
+                Map.of(oldKey, Timestamped.now(ROWS), expiredKey, new Timestamped<>(ROWS, twentyMinutesAgo)),
+                Map.of(STATS_KEY, new Timestamped<>(new NormalizationStats(1, 900, 2), twentyMinutesAgo),
+                        expiredStatsKey, new Timestamped<>(new NormalizationStats(1, 900, 2), twoHoursAgo)));
+
+        MappedSearchSnapshotStore restarted = new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1));
+        restarted.write(Map.of(KEY, Timestamped.now(ROWS)), Map.of());
+
+        assertThat(restarted.findResults(KEY)).isPresent();
+        assertThat(restarted.findResults(oldKey)).isPresent();
+        // Past the result TTL nothing would serve it, even though it is within retention
+        assertThat(restarted.findResults(expiredKey)).isEmpty();
+        assertThat(restarted.findStats(STATS_KEY)).isPresent();
+        assertThat(restarted.findStats(expiredStatsKey)).isEmpty();
+    }
+
+    @Test
+    void findResults_shouldIgnoreCorruptFile() throws IOException {
+        Path file = directory.resolve("store.bin");
+        Files.write(file, new byte[] {'G', 'R', 'S', 'S', 0, 0});
+
+        MappedSearchSnapshotStore store = new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1));
+
+        assertThat(store.findResults(KEY)).isEmpty();
+        assertThat(store.findStats(STATS_KEY)).isEmpty();
+    }
+
+    @Test
+    void findResults_shouldIgnoreSnapshotWithCorruptStringLength() throws IOException {
+        Path file = directory.resolve("store.bin");
+        new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1))
+                .write(Map.of(KEY, Timestamped.now(ROWS)), Map.of());
+        byte[] bytes = Files.readAllBytes(file);
+        // Magic, version, result count and row length come first; the keywords' length follows
+        ByteBuffer.wrap(bytes).putInt(16, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+
+        MappedSearchSnapshotStore store = new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1));
+
+        assertThat(store.findResults(KEY)).isEmpty();
+    }
+
+    @Test
+    void resultsCache_shouldServeFreshSnapshotEntriesButNotExpiredOnes() {
+        Path file = directory.resolve("store.bin");
+        SearchCacheKey staleKey = SearchCacheKey.from(new RepositoriesSearchIn("stale", null, null, null, null));
+        long elevenMinutesAgo = System.currentTimeMillis() - Duration.ofMinutes(11).toMillis();
+        new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1)).write(
+                Map.of(KEY, Timestamped.now(ROWS), staleKey, new Timestamped<>(ROWS, elevenMinutesAgo)), Map.of());
+
+        SearchResultsCacheImpl cache = new SearchResultsCacheImpl(Duration.ofMinutes(10), DataSize.ofMegabytes(1),
+                new MappedSearchSnapshotStore(file.toString(), Duration.ofMinutes(10), Duration.ofHours(1)));
+
+        assertThat(cache.get(KEY)).contains(ROWS);
+        assertThat(cache.get(staleKey)).isEmpty();
+        assertThat(cache.snapshot()).containsOnlyKeys(KEY);
+    }
+}
@@ -0,0 +1,66 @@
+package com.mmazurovsky.githubreposobserver.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+
+class SearchResultsCacheImplTest {
+
+    private static final RepositoriesSearchOut ROW =
+            new RepositoriesSearchOut("repo", "https://github.com/owner/repo", "Java", null, 10, 5, "Today", "10");
+    private static final SearchSnapshotStore NO_STORE = new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1));
+
+    @Test
+    void cacheKey_shouldIgnoreCaseWhitespaceAndDefaultMaxPages() {
+        SearchCacheKey first = SearchCacheKey.from(
+                new RepositoriesSearchIn("  Spring   Boot ", LocalDate.of(2020, 1, 1), "Java", null, null));
+        SearchCacheKey second = SearchCacheKey.from(
+                new RepositoriesSearchIn("spring boot", LocalDate.of(2020, 1, 1), "java", 5, null));
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    void get_shouldCountHitsAndMisses() {
+        SearchResultsCacheImpl cache = new SearchResultsCacheImpl(Duration.ofMinutes(1), DataSize.ofMegabytes(1), NO_STORE);
+        SearchCacheKey key = SearchCacheKey.from(new RepositoriesSearchIn("bot", null, null, null, null));
+
+        assertThat(cache.get(key)).isEmpty();
+        cache.put(key, List.of(ROW));
+
+        assertThat(cache.get(key)).contains(List.of(ROW));
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void put_shouldNotCacheEmptyResults() {
+        SearchResultsCacheImpl cache = new SearchResultsCacheImpl(Duration.ofMinutes(1), DataSize.ofMegabytes(1), NO_STORE);
+        SearchCacheKey key = SearchCacheKey.from(new RepositoriesSearchIn("bot", null, null, null, null));
+
+        cache.put(key, List.of());
+
+        assertThat(cache.get(key)).isEmpty();
+    }
+
+    @Test
+    void put_shouldEvictWhenByteBudgetIsExceeded() {
+        SearchCacheKey key = SearchCacheKey.from(new RepositoriesSearchIn("bot", null, null, null, null));
+        int entryBytes = SearchResultsCacheImpl.estimateBytes(key, List.of(ROW));
+        SearchResultsCacheImpl cache = new SearchResultsCacheImpl(Duration.ofMinutes(1), DataSize.ofBytes(entryBytes * 3L), NO_STORE);
+
+        for (int i = 0; i < 20; i++) {
+            cache.put(SearchCacheKey.from(new RepositoriesSearchIn("bot" + i, null, null, null, null)), List.of(ROW));
+        }
+
+        assertThat(cache.stats().evictionCount()).isGreaterThan(0);
+    }
+}
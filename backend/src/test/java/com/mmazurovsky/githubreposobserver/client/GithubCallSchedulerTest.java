@@ -0,0 +1,86 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class GithubCallSchedulerTest {
+
+    private final List<String> granted = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private GithubTokenPool tokenPool;
+    private GithubCallScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // One permit every 20 ms; the first is taken up front so every call below has to queue
+        tokenPool = new GithubTokenPool("", List.of(), 50, 50);
+        scheduler = new GithubCallScheduler(tokenPool, new SearchMetrics(registry), 8, 2, 1);
+        assertThat(tokenPool.tryAcquire()).isPresent();
+    }
+
+    @Test
+    void acquire_shouldInterleaveCallersAndPreferNormalization() {
+        List<Mono<String>> calls = new ArrayList<>();
+        for (int page = 1; page <= 4; page++) {
+            calls.add(call(CallPriority.INTERACTIVE, "alice", false, "alice-page-" + page));
+        }
+        calls.add(call(CallPriority.INTERACTIVE, "bob", false, "bob-page-1"));
+        calls.add(call(CallPriority.INTERACTIVE, "alice", true, "alice-normalization"));
+
+        Flux.merge(calls).blockLast(Duration.ofSeconds(5));
+
+        assertThat(granted).containsExactly(
+                "alice-normalization", "alice-page-1", "bob-page-1", "alice-page-2", "alice-page-3", "alice-page-4");
+    }
+
+    @Test
+    void acquire_shouldShareBacklogByClassWeight() {
+        List<Mono<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            calls.add(call(CallPriority.INTERACTIVE, "user-" + i, false, "interactive"));
+        }
+        calls.add(call(CallPriority.BATCH, "batch", false, "batch"));
+        calls.add(call(CallPriority.BATCH, "batch", false, "batch"));
+
+        Flux.merge(calls).blockLast(Duration.ofSeconds(5));
+
+        // Weights 8:1 - the batch class gets its turn once per eight interactive permits, never starved
+        assertThat(granted).hasSize(11);
+        assertThat(granted.indexOf("batch")).isEqualTo(1);
+        assertThat(granted.lastIndexOf("batch")).isEqualTo(10);
+    }
+
+    @Test
+    void acquire_cancelledWhileQueued_shouldLeaveTheQueue() {
+        Disposable cancelled = call(CallPriority.BATCH, "batch", false, "cancelled").subscribe();
+        assertThat(scheduler.queued()).isEqualTo(1);
+
+        cancelled.dispose();
+        call(CallPriority.INTERACTIVE, "alice", false, "kept").block(Duration.ofSeconds(5));
+
+        assertThat(granted).containsExactly("kept");
+        assertThat(scheduler.queued()).isZero();
+        assertThat(registry.get("github.scheduler.wait").tag("priority", "interactive").timer().count()).isEqualTo(1);
+    }
+
+    private Mono<String> call(CallPriority priority, String caller, boolean normalization, String label) {
+        return scheduler.acquire(normalization)
+                .map(token -> label)
+                .doOnNext(granted::add)
+                .contextWrite(CallPriority.context(priority, caller));
+    }
+}
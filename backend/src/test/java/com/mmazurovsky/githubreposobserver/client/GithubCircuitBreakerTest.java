@@ -0,0 +1,149 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.client.GithubCircuitBreaker.State;
+
+class GithubCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private SteppingClock clock;
+    private GithubCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new SteppingClock();
+        circuitBreaker = new GithubCircuitBreaker(true, 0.5, 10, 4, OPEN_DURATION, 2, clock);
+    }
+
+    @Test
+    void onFailure_belowMinimumCalls_shouldStayClosed() {
+        failCalls(3);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void onFailure_atFailureRateThreshold_shouldOpenAndRejectCalls() {
+        succeedCalls(2);
+        failCalls(2);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void onFailure_mostlySuccessfulWindow_shouldStayClosed() {
+        succeedCalls(7);
+        failCalls(3);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void tryAcquire_afterOpenDuration_shouldLetOnlyTrialCallsThrough() {
+        failCalls(4);
+        clock.advance(OPEN_DURATION);
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void onSuccess_allTrialCalls_shouldClose() {
+        failCalls(4);
+        clock.advance(OPEN_DURATION);
+
+        succeedCalls(2);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+        // The failures from before the outage no longer count
+        failCalls(1);
+        assertThat(circuitBreaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void onFailure_duringTrial_shouldOpenAgain() {
+        failCalls(4);
+        clock.advance(OPEN_DURATION);
+
+        succeedCalls(1);
+        failCalls(1);
+
+        assertThat(circuitBreaker.state()).isEqualTo(State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void onIgnored_duringTrial_shouldReturnThePermit() {
+        failCalls(4);
+        clock.advance(OPEN_DURATION);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.onIgnored();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void tryAcquire_whenDisabled_shouldAlwaysPermit() {
+        GithubCircuitBreaker disabled = new GithubCircuitBreaker(false, 0.5, 10, 4, OPEN_DURATION, 2, clock);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(disabled.tryAcquire()).isTrue();
+            disabled.onFailure();
+        }
+        assertThat(disabled.state()).isEqualTo(State.CLOSED);
+    }
+
+    private void succeedCalls(int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private void failCalls(int count) {
+        for (int i = 0; i < count; i++) {
+            assertThat(circuitBreaker.tryAcquire()).isTrue();
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private static final class SteppingClock extends Clock {
+        private Instant now = Instant.ofEpochMilli(1_700_000_000_000L);
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchFilter;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class GithubClientImplTest {
+
+    private static final RepositoriesSearchIn REQUEST = new RepositoriesSearchIn("spring", null, null, 1, null);
+    private static final long RESET_EPOCH_SECONDS = Instant.now().plus(Duration.ofHours(1)).getEpochSecond();
+
+    private final Deque<ClientResponse> responses = new ArrayDeque<>();
+    private final List<ClientRequest> requests = new ArrayList<>();
+    private final GithubTokenPool tokenPool = new GithubTokenPool("", List.of(), 50, 50);
+    private final SearchMetrics metrics = new SearchMetrics(new SimpleMeterRegistry());
+    private final GithubClientImpl client = new GithubClientImpl(
+            WebClient.builder()
+                    .exchangeFunction(request -> {
+                        requests.add(request);
+                        return Mono.just(responses.removeFirst());
+                    })
+                    .build(),
+            new GithubEtagStore(100),
+            tokenPool,
+            new GithubCallScheduler(tokenPool, metrics, 8, 2, 1),
+            new GithubCircuitBreaker(true, 0.5, 50, 20, Duration.ofSeconds(30), 3),
+            new GithubHedgePolicy(false, 0.95, Duration.ofMillis(250), 0.05, 5),
+            metrics
+    );
+
+    @Test
+    void searchRepositories_withStoredEtag_shouldSendIfNoneMatchAndReuseThePageOn304() {
+        responses.add(ok("\"v1\"", "first"));
+        responses.add(notModified("\"v1\""));
+
+        GithubRepositorySearchResponse fetched = fetch();
+        GithubRepositorySearchResponse revalidated = fetch();
+
+        assertThat(requests.get(0).headers().getIfNoneMatch()).isEmpty();
+        assertThat(requests.get(1).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(revalidated).isSameAs(fetched);
+        assertThat(revalidated.items().get(0).name()).isEqualTo("first");
+    }
+
+    @Test
+    void searchRepositories_whenThePageChanged_shouldReplaceTheStoredEtagAndPage() {
+        responses.add(ok("\"v1\"", "first"));
+        responses.add(ok("\"v2\"", "second"));
+        responses.add(notModified("\"v2\""));
+
+        fetch();
+        GithubRepositorySearchResponse changed = fetch();
+        GithubRepositorySearchResponse revalidated = fetch();
+
+        assertThat(requests.get(1).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(requests.get(2).headers().getIfNoneMatch()).containsExactly("\"v2\"");
+        assertThat(revalidated).isSameAs(changed);
+        assertThat(revalidated.items().get(0).name()).isEqualTo("second");
+    }
+
+    @Test
+    void searchRepositories_on304_shouldNotDebitTheTokensWindow() {
+        responses.add(ok("\"v1\"", "first"));
+        responses.add(notModified("\"v1\""));
+
+        fetch();
+        fetch();
+
+        // GitHub reported 10 left after both calls, since it does not count the 304
+        assertThat(tokenPool.tokens().get(0).rateLimiter().remainingBudget()).isEqualTo(10);
+    }
+
+    private GithubRepositorySearchResponse fetch() {
+        return client.searchRepositories(REQUEST, SearchFilter.of(REQUEST), 1, 100, "stars", "desc")
+                .block(Duration.ofSeconds(5));
+    }
+
+    private static ClientResponse ok(String etag, String name) {
+        return ClientResponse.create(HttpStatus.OK)
+                .headers(headers -> rateLimitHeaders(headers, etag))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("""
+                        {"total_count": 1, "incomplete_results": false, "items": [{"id": 1, "name": "%s",
+                        "full_name": "owner/%s", "html_url": "https://github.com/owner/%s", "stargazers_count": 10,
+                        "forks_count": 5}]}
+                        """.formatted(name, name, name))
+                .build();
+    }
+
+    private static ClientResponse notModified(String etag) {
+        return ClientResponse.create(HttpStatus.NOT_MODIFIED)
+                .headers(headers -> rateLimitHeaders(headers, etag))
+                .build();
+    }
+
+    private static void rateLimitHeaders(HttpHeaders headers, String etag) {
+        headers.setETag(etag);
+        headers.set(GithubRateLimiter.HEADER_LIMIT, "30");
+        headers.set(GithubRateLimiter.HEADER_REMAINING, "10");
+        headers.set(GithubRateLimiter.HEADER_RESET, String.valueOf(RESET_EPOCH_SECONDS));
+    }
+}
@@ -0,0 +1,43 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.mmazurovsky.githubreposobserver.config.WebClientConfig;
+import com.mmazurovsky.githubreposobserver.standin.GithubApiStandIn;
+import com.mmazurovsky.githubreposobserver.standin.StandInSettings;
+
+class GithubConnectionWarmerTest {
+
+    @Test
+    void warmUp_shouldSendOneRateLimitCallPerConnection() {
+        try (GithubApiStandIn standIn = GithubApiStandIn.start(StandInSettings.defaults())) {
+            GithubConnectionWarmer warmer = new GithubConnectionWarmer(webClient(standIn.baseUrl()), 3, Duration.ZERO);
+
+            assertThat(warmer.warmUp().block(Duration.ofSeconds(10))).isEqualTo(3);
+            assertThat(standIn.requestCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void warmUp_whenUpstreamIsUnreachable_shouldCompleteWithoutError() throws IOException {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        GithubConnectionWarmer warmer = new GithubConnectionWarmer(webClient("http://127.0.0.1:" + closedPort), 2, Duration.ZERO);
+
+        assertThat(warmer.warmUp().block(Duration.ofSeconds(10))).isZero();
+    }
+
+    private static WebClient webClient(String baseUrl) {
+        return new WebClientConfig().githubWebClient(baseUrl, 10, Duration.ofSeconds(30), Duration.ofMinutes(10), true, true);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.client.GithubEtagStore.PageKey;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+
+class GithubEtagStoreTest {
+
+    private static final GithubRepositorySearchResponse PAGE = new GithubRepositorySearchResponse(1, false, List.of());
+
+    @Test
+    void put_beyondMaxEntries_shouldEvictInsteadOfGrowing() {
+        GithubEtagStore store = new GithubEtagStore(10);
+
+        for (int page = 1; page <= 100; page++) {
+            store.put(new PageKey("spring", "stars", "desc", page, 100), "\"" + page + "\"", PAGE);
+        }
+
+        long stored = IntStream.rangeClosed(1, 100)
+                .filter(page -> store.get(new PageKey("spring", "stars", "desc", page, 100)).isPresent())
+                .count();
+        assertThat(stored).isLessThanOrEqualTo(10);
+        assertThat(store.stats().evictionCount()).isGreaterThanOrEqualTo(90);
+    }
+
+    @Test
+    void put_forAStoredPage_shouldReplaceItsEtag() {
+        GithubEtagStore store = new GithubEtagStore(10);
+        PageKey key = new PageKey("spring", "stars", "desc", 1, 100);
+
+        store.put(key, "\"v1\"", PAGE);
+        store.put(key, "\"v2\"", PAGE);
+
+        assertThat(store.get(key)).hasValueSatisfying(stored -> assertThat(stored.etag()).isEqualTo("\"v2\""));
+    }
+}
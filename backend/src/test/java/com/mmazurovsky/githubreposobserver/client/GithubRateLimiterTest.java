@@ -0,0 +1,108 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+class GithubRateLimiterTest {
+
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private GithubRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(START_MILLIS), ZoneOffset.UTC);
+        rateLimiter = new GithubRateLimiter(0.5, 10, clock);
+    }
+
+    @Test
+    void reserve_beforeAnyResponse_shouldPaceAtDefaultRate() {
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ZERO);
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void reserve_withBudgetLeft_shouldSpendItAtMaxRate() {
+        rateLimiter.onResponse(rateLimitHeaders(30, 3, START_MILLIS + 60_000));
+
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ZERO);
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ofMillis(100));
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void reserve_whenBudgetExhausted_shouldWaitExactlyUntilReset() {
+        long resetAt = START_MILLIS + 42_000;
+        rateLimiter.onResponse(rateLimitHeaders(30, 1, resetAt));
+
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ZERO);
+        assertThat(rateLimiter.isThrottled()).isTrue();
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ofMillis(resetAt - START_MILLIS));
+    }
+
+    @Test
+    void reserve_afterRetryAfterAsHttpDate_shouldBlockUntilThatDate() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                Instant.ofEpochMilli(START_MILLIS).plusSeconds(30).atZone(ZoneOffset.UTC)));
+        rateLimiter.onResponse(headers);
+
+        assertThat(rateLimiter.isThrottled()).isTrue();
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void onResponse_withUnparseableRetryAfter_shouldIgnoreIt() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "soon");
+        rateLimiter.onResponse(headers);
+
+        assertThat(rateLimiter.isThrottled()).isFalse();
+    }
+
+    @Test
+    void refund_shouldGiveBackAPermitGithubDidNotCount() {
+        rateLimiter.onResponse(rateLimitHeaders(30, 2, START_MILLIS + 60_000));
+        rateLimiter.reserve();
+
+        rateLimiter.refund();
+
+        assertThat(rateLimiter.remainingBudget()).isEqualTo(2);
+    }
+
+    @Test
+    void reserve_afterRetryAfter_shouldBlockForRequestedTime() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "7");
+        rateLimiter.onResponse(headers);
+
+        assertThat(rateLimiter.isThrottled()).isTrue();
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ofSeconds(7));
+    }
+
+    @Test
+    void onResponse_fromPreviousWindow_shouldNotLowerNewBudget() {
+        rateLimiter.onResponse(rateLimitHeaders(30, 30, START_MILLIS + 60_000));
+        rateLimiter.onResponse(rateLimitHeaders(30, 0, START_MILLIS - 1_000));
+
+        assertThat(rateLimiter.isThrottled()).isFalse();
+        assertThat(rateLimiter.reserve()).isEqualTo(Duration.ZERO);
+    }
+
+    private static HttpHeaders rateLimitHeaders(int limit, int remaining, long resetAtMillis) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(GithubRateLimiter.HEADER_LIMIT, String.valueOf(limit));
+        headers.set(GithubRateLimiter.HEADER_REMAINING, String.valueOf(remaining));
+        headers.set(GithubRateLimiter.HEADER_RESET, String.valueOf(resetAtMillis / 1000));
+        return headers;
+    }
+}
@@ -0,0 +1,147 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import reactor.core.publisher.Flux;
+
+class GithubSearchResponseDecoderTest {
+
+    private static final ResolvableType RESPONSE_TYPE = ResolvableType.forClass(GithubRepositorySearchResponse.class);
+
+    // Shaped like a real search page: nested owner/license objects, topic arrays and fields we do not project
+    private static final String PAGE = """
+            {
+              "total_count": 2,
+              "incomplete_results": false,
+              "items": [
+                {
+                  "id": 101,
+                  "node_id": "R_kgDO",
+                  "name": "alpha",
+                  "full_name": "owner/alpha",
+                  "owner": {"login": "owner", "id": 7, "site_admin": false, "urls": ["a", {"nested": [1, 2]}]},
+                  "html_url": "https://github.com/owner/alpha",
+                  "description": "has \\"quotes\\" and {braces} [brackets]",
+                  "created_at": "2020-01-02T03:04:05Z",
+                  "updated_at": "2024-05-06T07:08:09Z",
+                  "stargazers_count": 1500,
+                  "language": "Java",
+                  "forks_count": 320,
+                  "license": {"key": "mit", "name": "MIT License"},
+                  "topics": ["spring", "reactive"],
+                  "score": 1.0
+                },
+                {
+                  "id": 102,
+                  "name": "beta",
+                  "full_name": "owner/beta",
+                  "html_url": "https://github.com/owner/beta",
+                  "created_at": null,
+                  "updated_at": null,
+                  "stargazers_count": 0,
+                  "language": null,
+                  "forks_count": 0,
+                  "license": null,
+                  "topics": []
+                }
+              ]
+            }
+            """;
+
+    private final GithubSearchResponseDecoder decoder = new GithubSearchResponseDecoder();
+
+    @Test
+    void decodeToMono_shouldMatchDatabindAcrossArbitraryChunkBoundaries() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        GithubRepositorySearchResponse expected = objectMapper.readValue(PAGE, GithubRepositorySearchResponse.class);
+
+        for (int chunkSize : new int[] {1, 7, 64, PAGE.length()}) {
+            GithubRepositorySearchResponse decoded = decoder
+                    .decodeToMono(chunked(PAGE, chunkSize), RESPONSE_TYPE, MediaType.APPLICATION_JSON, null)
+                    .block(Duration.ofSeconds(5));
+
+            assertThat(decoded).as("chunk size %d", chunkSize).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void decodeToMono_shouldReleaseEachNettyBufferExactlyOnce() {
+        NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+        List<NettyDataBuffer> buffers = new ArrayList<>();
+        byte[] bytes = PAGE.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += 256) {
+            int length = Math.min(256, bytes.length - offset);
+            buffers.add(bufferFactory.wrap(Unpooled.copiedBuffer(bytes, offset, length)));
+        }
+
+        // Hold an extra reference so a second release shows up as a count of 0 instead of an error swallowed by Reactor
+        buffers.forEach(DataBufferUtils::retain);
+
+        GithubRepositorySearchResponse decoded = decoder
+                .decodeToMono(Flux.fromIterable(buffers), RESPONSE_TYPE, MediaType.APPLICATION_JSON, null)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(decoded).isNotNull();
+        assertThat(buffers).allSatisfy(buffer -> assertThat(buffer.getNativeBuffer().refCnt()).isEqualTo(1));
+        buffers.forEach(DataBufferUtils::release);
+    }
+
+    @Test
+    void decodeToMono_withEmptyBody_shouldCompleteEmpty() {
+        GithubRepositorySearchResponse decoded = decoder
+                .decodeToMono(Flux.empty(), RESPONSE_TYPE, MediaType.APPLICATION_JSON, null)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(decoded).isNull();
+    }
+
+    @Test
+    void decodeToMono_withTruncatedBody_shouldFail() {
+        String truncated = PAGE.substring(0, PAGE.length() / 2);
+
+        assertThatThrownBy(() -> decoder
+                .decodeToMono(chunked(truncated, 16), RESPONSE_TYPE, MediaType.APPLICATION_JSON, null)
+                .block(Duration.ofSeconds(5)))
+                .isInstanceOf(DecodingException.class);
+    }
+
+    @Test
+    void canDecode_shouldOnlyAcceptSearchResponsesAsJson() {
+        assertThat(decoder.canDecode(RESPONSE_TYPE, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(decoder.canDecode(RESPONSE_TYPE, MediaType.valueOf("application/vnd.github+json"))).isTrue();
+        assertThat(decoder.canDecode(ResolvableType.forClass(String.class), MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(decoder.canDecode(RESPONSE_TYPE, MediaType.TEXT_HTML)).isFalse();
+    }
+
+    private static Flux<DataBuffer> chunked(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.allocateBuffer(length).write(bytes, offset, length));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,69 @@
+package com.mmazurovsky.githubreposobserver.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.mmazurovsky.githubreposobserver.client.GithubTokenPool.GithubToken;
+
+class GithubTokenPoolTest {
+
+    @Test
+    void constructor_shouldMergeAndDeduplicateConfiguredTokens() {
+        GithubTokenPool pool = new GithubTokenPool("first", List.of("second", " first ", ""), 0.8, 10);
+
+        assertThat(pool.tokens()).extracting(GithubToken::value).containsExactly("first", "second");
+    }
+
+    @Test
+    void constructor_withoutTokens_shouldFallBackToAnonymous() {
+        GithubTokenPool pool = new GithubTokenPool("", List.of(), 0.8, 10);
+
+        assertThat(pool.tokens()).singleElement().satisfies(token -> assertThat(token.value()).isNull());
+    }
+
+    @Test
+    void acquire_shouldSkipExhaustedTokenAndPreferMostRemainingBudget() {
+        GithubTokenPool pool = new GithubTokenPool("", List.of("exhausted", "low", "high"), 0.8, 10);
+        long resetAt = Instant.now().plusSeconds(60).getEpochSecond();
+        pool.tokens().get(0).rateLimiter().onResponse(rateLimitHeaders(0, resetAt));
+        pool.tokens().get(1).rateLimiter().onResponse(rateLimitHeaders(3, resetAt));
+        pool.tokens().get(2).rateLimiter().onResponse(rateLimitHeaders(20, resetAt));
+
+        GithubToken token = pool.acquire().block(Duration.ofSeconds(5));
+
+        assertThat(token).isNotNull();
+        assertThat(token.value()).isEqualTo("high");
+        assertThat(pool.isThrottled()).isFalse();
+    }
+
+    @Test
+    void idleBudget_shouldCountOnlyKnownBudgetOfTokensNobodyIsWaitingOn() {
+        GithubTokenPool pool = new GithubTokenPool("", List.of("unknown", "exhausted", "spare"), 0.8, 10);
+        long resetAt = Instant.now().plusSeconds(60).getEpochSecond();
+        pool.tokens().get(1).rateLimiter().onResponse(rateLimitHeaders(0, resetAt));
+        pool.tokens().get(2).rateLimiter().onResponse(rateLimitHeaders(20, resetAt));
+
+        assertThat(pool.idleBudget()).isEqualTo(20);
+    }
+
+    @Test
+    void toString_shouldNotExposeTokenValue() {
+        GithubTokenPool pool = new GithubTokenPool("secret-token", List.of(), 0.8, 10);
+
+        assertThat(pool.tokens().get(0).toString()).doesNotContain("secret-token");
+    }
+
+    private static HttpHeaders rateLimitHeaders(int remaining, long resetAtEpochSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(GithubRateLimiter.HEADER_LIMIT, "30");
+        headers.set(GithubRateLimiter.HEADER_REMAINING, String.valueOf(remaining));
+        headers.set(GithubRateLimiter.HEADER_RESET, String.valueOf(resetAtEpochSeconds));
+        return headers;
+    }
+}
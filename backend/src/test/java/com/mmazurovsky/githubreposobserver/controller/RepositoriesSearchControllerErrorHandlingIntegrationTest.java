@@ -14,8 +14,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -26,6 +29,8 @@ import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchRe
 import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
 import com.mmazurovsky.githubreposobserver.errorhandling.GlobalErrorHandler.ErrorResponse;
 
+import reactor.core.publisher.Mono;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
 class RepositoriesSearchControllerErrorHandlingIntegrationTest {
@@ -40,7 +45,7 @@ class RepositoriesSearchControllerErrorHandlingIntegrationTest {
     void search_whenGitHub422Error_shouldReturnEmptyResultGracefully() {
         // Arrange - Mock GitHub client to return empty response for 422 errors
         when(githubClient.searchRepositories(any(), anyInt(), anyInt(), anyString(), anyString()))
-            .thenReturn(new GithubRepositorySearchResponse(0, false, List.of()));
+            .thenReturn(Mono.just(new GithubRepositorySearchResponse(0, false, List.of())));
 
         String url = UriComponentsBuilder.fromPath("/api/search")
                 .queryParam("keywords", "test")
@@ -64,7 +69,7 @@ class RepositoriesSearchControllerErrorHandlingIntegrationTest {
     void search_whenGitHubRequestInterrupted_shouldReturnEmptyResultGracefully() {
         // Arrange - Mock GitHub client to return empty response for interrupted requests
         when(githubClient.searchRepositories(any(), anyInt(), anyInt(), anyString(), anyString()))
-            .thenReturn(new GithubRepositorySearchResponse(0, false, List.of()));
+            .thenReturn(Mono.just(new GithubRepositorySearchResponse(0, false, List.of())));
 
         String url = UriComponentsBuilder.fromPath("/api/search")
                 .queryParam("keywords", "test")
@@ -88,7 +93,7 @@ class RepositoriesSearchControllerErrorHandlingIntegrationTest {
     void search_whenGitHubRetriesExhausted_shouldReturnEmptyResultGracefully() {
         // Arrange - Mock GitHub client to return empty response for exhausted retries
         when(githubClient.searchRepositories(any(), anyInt(), anyInt(), anyString(), anyString()))
-            .thenReturn(new GithubRepositorySearchResponse(0, false, List.of()));
+            .thenReturn(Mono.just(new GithubRepositorySearchResponse(0, false, List.of())));
 
         String url = UriComponentsBuilder.fromPath("/api/search")
                 .queryParam("keywords", "test")
@@ -227,4 +232,33 @@ class RepositoriesSearchControllerErrorHandlingIntegrationTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().error()).isEqualTo("Unexpected error");
     }
+
+    @Test
+    void streamSearch_whenGitHub422Error_shouldEmitSingleEmptyCompleteFrame() {
+        // Arrange - Mock GitHub client to return empty response for 422 errors
+        when(githubClient.searchRepositories(any(), anyInt(), anyInt(), anyString(), anyString()))
+            .thenReturn(Mono.just(new GithubRepositorySearchResponse(0, false, List.of())));
+
+        String url = UriComponentsBuilder.fromPath("/api/search/stream")
+                .queryParam("keywords", "stream-test")
+                .queryParam("maxPages", 1)
+                .toUriString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        // Act
+        ResponseEntity<String> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+
+        // Assert - Should stream one complete frame with no repositories
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().strip().lines()).singleElement().satisfies(frame -> assertThat(frame)
+                .contains("\"type\":\"complete\"")
+                .contains("\"repositories\":[]"));
+    }
 }
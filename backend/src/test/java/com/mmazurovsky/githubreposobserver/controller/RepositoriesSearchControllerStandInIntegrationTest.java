@@ -0,0 +1,150 @@
+package com.mmazurovsky.githubreposobserver.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesBatchSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesBatchResult;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.standin.GithubApiStandIn;
+import com.mmazurovsky.githubreposobserver.standin.StandInSettings;
+
+/**
+ * Full search flow against the embedded GitHub stand-in, so it runs offline and without a token.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+// Tests disable metrics export by default; the Prometheus scrape is part of what is verified here
+@AutoConfigureObservability(tracing = false)
+class RepositoriesSearchControllerStandInIntegrationTest {
+
+    private static final GithubApiStandIn STAND_IN = GithubApiStandIn.start(StandInSettings.defaults());
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void githubProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", STAND_IN::baseUrl);
+        registry.add("github.api.token", () -> "stand-in-token");
+        registry.add("github.api.tokens", () -> "");
+        // Warm-up calls would show up in the stand-in's request counts
+        registry.add("github.http.warm-up.connections", () -> 0);
+    }
+
+    @AfterAll
+    static void stopStandIn() {
+        STAND_IN.close();
+    }
+
+    @Test
+    void search_shouldReturnScoredResultsSortedByPopularity() {
+        ResponseEntity<List<RepositoriesSearchOut>> response = search("stand-in sorted", 2);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotEmpty().hasSizeLessThanOrEqualTo(200);
+        assertThat(response.getBody())
+                .extracting(repository -> Double.parseDouble(repository.popularityScore()))
+                .isSortedAccordingTo(Comparator.reverseOrder())
+                .allSatisfy(score -> assertThat(score).isBetween(0.0, 10.0));
+    }
+
+    @Test
+    void search_repeatedQuery_shouldBeServedWithoutCallingGithubAgain() {
+        ResponseEntity<List<RepositoriesSearchOut>> first = search("stand-in repeated", 1);
+        long githubRequests = STAND_IN.requestCount();
+
+        ResponseEntity<List<RepositoriesSearchOut>> second = search("  Stand-In   Repeated ", 1);
+
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(STAND_IN.requestCount()).isEqualTo(githubRequests);
+    }
+
+    @Test
+    void search_withLimit_shouldReturnTopOfTheFullRanking() {
+        List<RepositoriesSearchOut> all = search("stand-in limit", 2).getBody();
+
+        ResponseEntity<List<RepositoriesSearchOut>> top = search("stand-in limit", 2, 10);
+
+        assertThat(top.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(all).hasSizeGreaterThan(10);
+        assertThat(top.getBody()).isEqualTo(all.subList(0, 10));
+    }
+
+    @Test
+    void searchBatch_shouldShareUpstreamCallsAcrossOverlappingQueries() {
+        long githubRequests = STAND_IN.requestCount();
+        RepositoriesBatchSearchIn batch = new RepositoriesBatchSearchIn(List.of(
+                new RepositoriesSearchIn("stand-in batch", null, null, 2, null),
+                new RepositoriesSearchIn("Stand-In  Batch", null, null, 2, 5),
+                new RepositoriesSearchIn("stand-in batch", null, null, 1, null)
+        ));
+
+        ResponseEntity<List<RepositoriesBatchResult>> response = restTemplate.exchange(
+                "/api/search/batch", HttpMethod.POST, new HttpEntity<>(batch), new ParameterizedTypeReference<>() {});
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<RepositoriesBatchResult> results = response.getBody();
+        assertThat(results).extracting(RepositoriesBatchResult::index).containsExactly(0, 1, 2);
+        assertThat(results).allSatisfy(result -> assertThat(result.error()).isNull());
+        assertThat(results.get(1).repositories()).isEqualTo(results.get(0).repositories().subList(0, 5));
+        assertThat(results.get(2).repositories()).isNotEmpty();
+        // Run one by one these would be 2 + 2 + 1 pages plus normalization lookups; overlapping pages are shared
+        assertThat(STAND_IN.requestCount() - githubRequests).isLessThanOrEqualTo(2 + 3);
+    }
+
+    @Test
+    void prometheusEndpoint_shouldExposeSearchPipelineMeters() {
+        search("stand-in metrics", 1);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("github_request_seconds_bucket")
+                .contains("github_fetch_seconds_count{kind=\"page\",outcome=\"success\"")
+                .contains("github_ratelimit_remaining{token=")
+                .contains("search_scoring_seconds_count")
+                .contains("search_results_size_repositories_count");
+    }
+
+    private ResponseEntity<List<RepositoriesSearchOut>> search(String keywords, int maxPages) {
+        return search(keywords, maxPages, null);
+    }
+
+    private ResponseEntity<List<RepositoriesSearchOut>> search(String keywords, int maxPages, @Nullable Integer limit) {
+        // Encoded once here; a String URL would be encoded again by the template
+        URI uri = UriComponentsBuilder.fromPath("/api/search")
+                .queryParam("keywords", keywords)
+                .queryParam("maxPages", maxPages)
+                .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                .encode()
+                .build()
+                .toUri();
+
+        return restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<>() {});
+    }
+}
@@ -11,14 +11,21 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesBatchResult;
 import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
 import com.mmazurovsky.githubreposobserver.service.SearchAndScoringService;
 import com.mmazurovsky.githubreposobserver.util.Const;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 @WebMvcTest(RepositoriesSearchController.class)
 public class RepositoriesSearchControllerValidationTest {
 
@@ -73,6 +80,16 @@ public class RepositoriesSearchControllerValidationTest {
                         .value(Matchers.containsString(Const.MSG_MAX_PAGES)));
     }
 
+    @Test
+    void whenLimitOutOfRange_thenValidationFails() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/search")
+                        .param("keywords", "java")
+                        .param("limit", "0"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error")
+                        .value(Matchers.containsString(Const.MSG_LIMIT)));
+    }
+
     @Test
     void whenMaxPagesExceedsAndInvalidLanguage_thenValidationFails() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/api/search")
@@ -90,13 +107,17 @@ public class RepositoriesSearchControllerValidationTest {
         // Mock service response
         RepositoriesSearchOut mockResult = new RepositoriesSearchOut("repo", "url", null, null, 1, 1, "recent", "8.5");
         Mockito.when(searchAndScoringService.searchAndOutputRepositoriesWithScores(Mockito.any()))
-                .thenReturn(List.of(mockResult));
+                .thenReturn(Mono.just(List.of(mockResult)));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/search")
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/search")
                         .param("keywords", "java")
                         .param("earliestCreatedDate", "2022-01-01")
                         .param("language", "Java")
                         .param("maxPages", "5"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$").isArray())
                 .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1)));
@@ -107,13 +128,72 @@ public class RepositoriesSearchControllerValidationTest {
         // Mock service response
         RepositoriesSearchOut mockResult = new RepositoriesSearchOut("repo", "url", null, null, 1, 1, "recent", "7.2");
         Mockito.when(searchAndScoringService.searchAndOutputRepositoriesWithScores(Mockito.any()))
-                .thenReturn(List.of(mockResult));
+                .thenReturn(Mono.just(List.of(mockResult)));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/search")
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/search")
                         .param("keywords", "java"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$").isArray())
                 .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1)));
     }
-}
 
+    @Test
+    void whenBatchIsEmpty_thenValidationFails() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/search/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"queries\":[]}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error")
+                        .value(Matchers.containsString(Const.MSG_BATCH_SIZE)));
+    }
+
+    @Test
+    void whenBatchQueryInvalid_thenValidationFails() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/search/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"queries\":[{\"keywords\":\"java\"},{\"keywords\":\"go\",\"limit\":0}]}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error")
+                        .value(Matchers.containsString(Const.MSG_LIMIT)));
+    }
+
+    @Test
+    void whenDeepSearchMaxRepositoriesExceeds_thenValidationFails() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/search/deep")
+                        .param("keywords", "java")
+                        .param("maxRepositories", String.valueOf(Const.MAX_DEEP_REPOSITORIES + 1)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error")
+                        .value(Matchers.containsString(Const.MSG_MAX_REPOSITORIES)));
+    }
+
+    @Test
+    void whenBatchValid_thenResultsAreInRequestOrder() throws Exception {
+        RepositoriesSearchOut mockResult = new RepositoriesSearchOut("repo", "url", null, null, 1, 1, "recent", "7.2");
+        RepositoriesSearchIn java = new RepositoriesSearchIn("java", null, null, null, null);
+        RepositoriesSearchIn go = new RepositoriesSearchIn("go", null, null, null, null);
+        // Completion order differs from request order
+        Mockito.when(searchAndScoringService.searchBatch(Mockito.any()))
+                .thenReturn(Flux.just(
+                        RepositoriesBatchResult.failure(1, go, "Search operation failed"),
+                        RepositoriesBatchResult.success(0, java, List.of(mockResult))));
+
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.post("/api/search/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("{\"queries\":[{\"keywords\":\"java\"},{\"keywords\":\"go\"}]}"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].index").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].repositories", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].index").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").value("Search operation failed"));
+    }
+}
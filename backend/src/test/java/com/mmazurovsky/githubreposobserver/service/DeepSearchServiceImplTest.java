@@ -0,0 +1,154 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.dto.CreatedDateRange;
+import com.mmazurovsky.githubreposobserver.dto.dto.CreatedTimeRange;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesDeepSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class DeepSearchServiceImplTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+    private static final LocalDate TODAY = LocalDate.of(2020, 12, 31);
+    private static final Clock CLOCK = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void searchRepositories_overTheCap_shouldCoverEveryRepositoryAcrossPartitions() {
+        // 5 repositories a day for a year: 1830, almost twice what a single query can reach
+        GithubRepositorySearchResults results = deepSearch(day -> 5, null);
+
+        assertThat(results.repositories()).hasSize(1830);
+        assertThat(results.repositories()).extracting(GithubRepositoryItemResponse::id).doesNotHaveDuplicates();
+        assertThat(registry.get("search.deep.partitions").counter().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void searchRepositories_withinTheCap_shouldNotPartition() {
+        GithubRepositorySearchResults results = deepSearch(day -> day.getDayOfMonth() == 1 ? 20 : 0, null);
+
+        assertThat(results.repositories()).hasSize(240);
+        // One probe that doubles as page 1, then pages 2 and 3
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(registry.get("search.deep.partitions").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void searchRepositories_withMaxRepositories_shouldStopPartitioningOnceCovered() {
+        GithubRepositorySearchResults results = deepSearch(day -> 5, 300);
+
+        assertThat(results.repositories().size()).isBetween(300, 399);
+        // Newest first: everything returned was created in the second half of the year
+        assertThat(results.repositories()).allSatisfy(repository -> assertThat(createdOf(repository)).isAfter(LocalDate.of(2020, 6, 30)));
+    }
+
+    @Test
+    void searchRepositories_singleDayOverTheCap_shouldCutTheDayByTime() {
+        List<String> qualifiers = new CopyOnWriteArrayList<>();
+        GithubRepositorySearchResults results = deepSearch(day -> day.equals(TODAY) ? 1500 : 0, null, qualifiers);
+
+        assertThat(results.repositories()).hasSize(1500);
+        assertThat(registry.find("search.deep.truncated").counter()).isNull();
+        assertThat(qualifiers).contains("created:2020-12-31T12:00:00Z..2020-12-31T23:59:59Z");
+    }
+
+    @Test
+    void searchRepositories_whenAProbeFallsBack_shouldFailInsteadOfDroppingTheRange() {
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> Mono.just(GithubClient.FALLBACK_PAGE);
+        DeepSearchServiceImpl deepSearchService = new DeepSearchServiceImpl(githubClient, new SearchMetrics(registry), 4, CLOCK);
+
+        assertThatThrownBy(() -> deepSearchService
+                .searchRepositories(new RepositoriesDeepSearchIn("spring", START, null, null, null))
+                .block(Duration.ofSeconds(10)))
+                .isSameAs(DeepSearchServiceImpl.DEEP_SEARCH_INCOMPLETE_EXCEPTION);
+    }
+
+    private GithubRepositorySearchResults deepSearch(DailyRepositories dailyRepositories, Integer maxRepositories) {
+        return deepSearch(dailyRepositories, maxRepositories, new CopyOnWriteArrayList<>());
+    }
+
+    private GithubRepositorySearchResults deepSearch(
+            DailyRepositories dailyRepositories,
+            Integer maxRepositories,
+            List<String> qualifiers
+    ) {
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            qualifiers.add(filter.created().qualifier());
+            Instant from = switch (filter.created()) {
+                case CreatedDateRange days -> CreatedTimeRange.ofDay(days.from()).from();
+                case CreatedTimeRange times -> times.from();
+            };
+            Instant to = switch (filter.created()) {
+                case CreatedDateRange days -> CreatedTimeRange.ofDay(days.to()).to();
+                case CreatedTimeRange times -> times.to();
+            };
+            List<GithubRepositoryItemResponse> matching = new ArrayList<>();
+            for (LocalDate day = LocalDate.ofInstant(from, ZoneOffset.UTC); !day.isAfter(LocalDate.ofInstant(to, ZoneOffset.UTC)); day = day.plusDays(1)) {
+                int count = dailyRepositories.count(day);
+                for (int i = 0; i < count; i++) {
+                    Instant created = createdAt(day, i, count);
+                    if (!created.isBefore(from) && !created.isAfter(to)) {
+                        matching.add(repository(day, i));
+                    }
+                }
+            }
+            matching.sort(Comparator.comparingInt(GithubRepositoryItemResponse::forksCount).reversed()
+                    .thenComparingLong(GithubRepositoryItemResponse::id));
+            int start = Math.min(matching.size(), Math.min(1000, (page - 1) * perPage));
+            int end = Math.min(matching.size(), Math.min(1000, page * perPage));
+            return new GithubRepositorySearchResponse(matching.size(), false, List.copyOf(matching.subList(start, end)));
+        });
+        DeepSearchServiceImpl deepSearchService = new DeepSearchServiceImpl(githubClient, new SearchMetrics(registry), 4, CLOCK);
+
+        GithubRepositorySearchResults results = deepSearchService
+                .searchRepositories(new RepositoriesDeepSearchIn("spring", START, null, maxRepositories, null))
+                .block(Duration.ofSeconds(10));
+        assertThat(results).isNotNull();
+        return results;
+    }
+
+    // A day's repositories are spread evenly over it
+    private static Instant createdAt(LocalDate day, int index, int count) {
+        return CreatedTimeRange.ofDay(day).from().plusSeconds(86_400L * index / count);
+    }
+
+    private static GithubRepositoryItemResponse repository(LocalDate created, int index) {
+        long id = created.toEpochDay() * 10_000 + index;
+        int forks = (int) (id * 7919 % 1000);
+        return new GithubRepositoryItemResponse(id, "repo-" + id, "owner/repo-" + id, "https://github.com/owner/repo-" + id,
+                forks * 2, forks, null, null, null);
+    }
+
+    private static LocalDate createdOf(GithubRepositoryItemResponse repository) {
+        return LocalDate.ofEpochDay(repository.id() / 10_000);
+    }
+
+    private interface DailyRepositories {
+        int count(LocalDate day);
+    }
+}
@@ -0,0 +1,173 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.dto.NormalizationStats;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class NormalizationStatsServiceImplTest {
+
+    private final AtomicInteger startedLookups = new AtomicInteger();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private NormalizationStatsServiceImpl statsService;
+
+    @BeforeEach
+    void setUp() {
+        // Lookups answer after a moment, so one dropped as soon as page 1 is in never completes
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> {
+            startedLookups.incrementAndGet();
+            int value = "desc".equals(order) ? 900 : 5;
+            return Mono.delay(Duration.ofMillis(50))
+                    .doOnNext(tick -> lookups.incrementAndGet())
+                    .thenReturn(new GithubRepositorySearchResponse(1000, false, List.of(repository(value, value))));
+        };
+        MappedSearchSnapshotStore noStore = new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1));
+        statsService = new NormalizationStatsServiceImpl(githubClient, new SearchMetrics(registry), noStore, Duration.ofMinutes(10), 100);
+    }
+
+    @Test
+    void resolveStats_whenPagesCoverWholeResultSet_shouldDeriveAndDropTheLookups() {
+        List<GithubRepositoryItemResponse> repositories = List.of(repository(10, 3), repository(250, 1), repository(40, 7));
+        GithubRepositorySearchResponse firstPage = new GithubRepositorySearchResponse(3, false, repositories);
+
+        NormalizationStats stats = resolve(request("spring"), firstPage, repositories);
+
+        assertThat(stats).isEqualTo(new NormalizationStats(10, 250, 1));
+        assertThat(lookups).hasValue(0);
+    }
+
+    @Test
+    void resolveStats_whenResultSetExceedsCapacity_shouldLookUpBoundsFromGithub() {
+        List<GithubRepositoryItemResponse> repositories = List.of(repository(10, 3));
+        GithubRepositorySearchResponse firstPage = new GithubRepositorySearchResponse(5000, false, repositories);
+
+        NormalizationStats stats = resolve(request("spring"), firstPage, repositories);
+
+        assertThat(stats).isEqualTo(new NormalizationStats(5, 900, 5));
+        assertThat(lookups).hasValue(3);
+    }
+
+    @Test
+    void resolveStats_shouldStartLookupsBeforeThePagesArrive() {
+        List<GithubRepositoryItemResponse> repositories = List.of(repository(10, 3));
+        GithubRepositorySearchResponse firstPage = new GithubRepositorySearchResponse(5000, false, repositories);
+        AtomicInteger startedBeforePageOne = new AtomicInteger(-1);
+        Flux<GithubRepositorySearchResponse> pages = Flux.defer(() -> {
+            startedBeforePageOne.compareAndSet(-1, startedLookups.get());
+            return Flux.just(firstPage);
+        });
+
+        resolve(request("spring"), pages, repositories);
+
+        assertThat(startedBeforePageOne).hasValue(3);
+    }
+
+    @Test
+    void resolveStats_concurrentSearchesWithTheSameBounds_shouldShareOneSetOfLookups() {
+        List<GithubRepositoryItemResponse> repositories = List.of(repository(10, 3));
+        Flux<GithubRepositorySearchResponse> pages = Flux.just(new GithubRepositorySearchResponse(5000, false, repositories));
+
+        Mono.zip(
+                statsService.resolveStats(request("spring"), pages, Mono.just(repositories), 500),
+                statsService.resolveStats(request("Spring"), pages, Mono.just(repositories), 100)
+        ).block(Duration.ofSeconds(5));
+
+        assertThat(startedLookups).hasValue(3);
+    }
+
+    @Test
+    void resolveStats_whenALaterPageFellBack_shouldDeriveButNotCacheBounds() {
+        List<GithubRepositoryItemResponse> repositories = List.of(repository(10, 3), repository(250, 1));
+        GithubRepositorySearchResponse firstPage = new GithubRepositorySearchResponse(150, false, repositories);
+
+        NormalizationStats partial = resolve(request("spring"), Flux.just(firstPage, GithubClient.FALLBACK_PAGE), repositories);
+        List<GithubRepositoryItemResponse> allRepositories = List.of(repository(10, 3), repository(250, 1), repository(2, 9));
+        NormalizationStats complete = resolve(request("spring"), Flux.just(firstPage,
+                new GithubRepositorySearchResponse(150, false, List.of(repository(2, 9)))), allRepositories);
+
+        assertThat(partial).isEqualTo(new NormalizationStats(10, 250, 1));
+        assertThat(complete).isEqualTo(new NormalizationStats(2, 250, 1));
+    }
+
+    @Test
+    void resolveStats_shouldServeRepeatedQueriesFromCacheRegardlessOfCase() {
+        List<GithubRepositoryItemResponse> repositories = List.of(repository(10, 3));
+        GithubRepositorySearchResponse firstPage = new GithubRepositorySearchResponse(5000, false, repositories);
+
+        NormalizationStats first = resolve(request("Spring Boot"), firstPage, repositories);
+        NormalizationStats second = resolve(request("  spring   boot "), firstPage, repositories);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(lookups).hasValue(3);
+    }
+
+    @Test
+    void resolveStats_shouldRecordWhereBoundsCameFrom() {
+        List<GithubRepositoryItemResponse> repositories = List.of(repository(10, 3));
+        GithubRepositorySearchResponse firstPage = new GithubRepositorySearchResponse(5000, false, repositories);
+
+        resolve(request("spring"), firstPage, repositories);
+        resolve(request("spring"), firstPage, repositories);
+        resolve(request("kotlin"), new GithubRepositorySearchResponse(1, false, repositories), repositories);
+
+        assertThat(registry.get("search.normalization").tag("source", "github").timer().count()).isEqualTo(1);
+        assertThat(registry.get("search.normalization").tag("source", "cache").timer().count()).isEqualTo(1);
+        assertThat(registry.get("search.normalization").tag("source", "pages").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resolveStats_withEmptyFirstPage_shouldNotCacheBounds() {
+        GithubRepositorySearchResponse emptyPage = new GithubRepositorySearchResponse(0, false, List.of());
+
+        resolve(request("spring"), emptyPage, List.of());
+        NormalizationStats stats = resolve(request("spring"),
+                new GithubRepositorySearchResponse(2, false, List.of(repository(1, 1), repository(8, 4))),
+                List.of(repository(1, 1), repository(8, 4)));
+
+        assertThat(stats).isEqualTo(new NormalizationStats(1, 8, 1));
+    }
+
+    private NormalizationStats resolve(
+            RepositoriesSearchIn request,
+            GithubRepositorySearchResponse firstPage,
+            List<GithubRepositoryItemResponse> repositories
+    ) {
+        return resolve(request, Flux.just(firstPage), repositories);
+    }
+
+    private NormalizationStats resolve(
+            RepositoriesSearchIn request,
+            Flux<GithubRepositorySearchResponse> pages,
+            List<GithubRepositoryItemResponse> repositories
+    ) {
+        return statsService.resolveStats(request, pages, Mono.just(repositories), 500)
+                .block(Duration.ofSeconds(5));
+    }
+
+    private static RepositoriesSearchIn request(String keywords) {
+        return new RepositoriesSearchIn(keywords, null, null, 5, null);
+    }
+
+    private static GithubRepositoryItemResponse repository(int stars, int forks) {
+        return new GithubRepositoryItemResponse(stars, "repo", "owner/repo", "https://github.com/owner/repo",
+                stars, forks, null, null, null);
+    }
+}
@@ -0,0 +1,122 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.cache.PopularSearches;
+import com.mmazurovsky.githubreposobserver.cache.SearchCacheKey;
+import com.mmazurovsky.githubreposobserver.cache.SearchResultsCacheImpl;
+import com.mmazurovsky.githubreposobserver.client.GithubTokenPool;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesDeepSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesBatchResult;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchFrame;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class RefreshAheadSchedulerTest {
+
+    private static final List<RepositoriesSearchOut> ROWS = List.of(
+            new RepositoriesSearchOut("repo", "https://github.com/owner/repo", "Java", null, 10, 5, "Today", "10"));
+    private static final SearchCacheKey POPULAR = SearchCacheKey.from(new RepositoriesSearchIn("popular", null, null, 2, null));
+    private static final SearchCacheKey RARE = SearchCacheKey.from(new RepositoriesSearchIn("rare", null, null, 2, null));
+
+    private final List<RepositoriesSearchIn> refreshed = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SearchResultsCacheImpl cache;
+    private PopularSearches popularSearches;
+    private GithubTokenPool tokenPool;
+    private RefreshAheadScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // A 30 s TTL is inside the one-minute refresh window as soon as an entry is written
+        cache = new SearchResultsCacheImpl(Duration.ofSeconds(30), DataSize.ofMegabytes(1),
+                new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1)));
+        popularSearches = new PopularSearches(16);
+        tokenPool = new GithubTokenPool("", List.of(), 0.8, 10);
+        scheduler = new RefreshAheadScheduler(new RecordingSearchService(), cache, popularSearches, tokenPool,
+                new SearchMetrics(registry), true, 10, 3, Duration.ofMinutes(1), 10);
+    }
+
+    @Test
+    void expiringPopularSearches_shouldSkipRareAndUncachedSearches() {
+        SearchCacheKey uncached = SearchCacheKey.from(new RepositoriesSearchIn("uncached", null, null, 2, null));
+        for (int i = 0; i < 5; i++) {
+            popularSearches.record(POPULAR);
+            popularSearches.record(uncached);
+        }
+        popularSearches.record(RARE);
+        cache.put(POPULAR, ROWS);
+        cache.put(RARE, ROWS);
+
+        assertThat(scheduler.expiringPopularSearches()).containsExactly(POPULAR);
+    }
+
+    @Test
+    void refreshExpiring_shouldRefreshOnlyWithIdleBudget() {
+        for (int i = 0; i < 5; i++) {
+            popularSearches.record(POPULAR);
+        }
+        cache.put(POPULAR, ROWS);
+
+        scheduler.refreshExpiring();
+        assertThat(refreshed).isEmpty();
+        assertThat(registry.counter("search.refresh", "outcome", SearchMetrics.REFRESH_NO_BUDGET).count()).isEqualTo(1);
+
+        tokenPool.tokens().get(0).rateLimiter().onResponse(rateLimitHeaders(100));
+        scheduler.refreshExpiring();
+        assertThat(refreshed).containsExactly(POPULAR.toRequest());
+        assertThat(registry.counter("search.refresh", "outcome", SearchMetrics.REFRESH_REFRESHED).count()).isEqualTo(1);
+    }
+
+    private static HttpHeaders rateLimitHeaders(int remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", "5000");
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+        return headers;
+    }
+
+    private final class RecordingSearchService implements SearchAndScoringService {
+        @Override
+        public Mono<List<RepositoriesSearchOut>> searchAndOutputRepositoriesWithScores(RepositoriesSearchIn request) {
+            return Mono.error(new UnsupportedOperationException());
+        }
+
+        @Override
+        public Flux<RepositoriesSearchFrame> streamRepositoriesWithScores(RepositoriesSearchIn request) {
+            return Flux.error(new UnsupportedOperationException());
+        }
+
+        @Override
+        public Mono<List<RepositoriesSearchOut>> deepSearchAndOutputRepositoriesWithScores(RepositoriesDeepSearchIn request) {
+            return Mono.error(new UnsupportedOperationException());
+        }
+
+        @Override
+        public Flux<RepositoriesBatchResult> searchBatch(List<RepositoriesSearchIn> queries) {
+            return Flux.error(new UnsupportedOperationException());
+        }
+
+        @Override
+        public Mono<List<RepositoriesSearchOut>> refresh(RepositoriesSearchIn request) {
+            refreshed.add(request);
+            return Mono.just(ROWS);
+        }
+    }
+}
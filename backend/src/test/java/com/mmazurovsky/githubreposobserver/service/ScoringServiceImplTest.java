@@ -2,8 +2,12 @@ package com.mmazurovsky.githubreposobserver.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.Period;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
 import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
 import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.standin.SyntheticRepositories;
 
 class ScoringServiceImplTest {
 
@@ -117,4 +122,131 @@ class ScoringServiceImplTest {
         // Should show "Unknown" when updated_at format is invalid
         assertThat(result.recency()).isEqualTo("Unknown");
     }
+
+    @Test
+    void recencyCalculation_shouldMatchCalendarPeriodsAcrossMonthBoundaries() {
+        LocalDate today = LocalDate.now();
+        List<GithubRepositoryItemResponse> repositories = List.of(
+                updatedOn(1L, today.minusMonths(1)),
+                updatedOn(2L, today.minusMonths(1).plusDays(1)),
+                updatedOn(3L, today.minusYears(3).minusDays(5)),
+                updatedOn(4L, today.minusYears(80)),
+                updatedOn(5L, today.plusDays(2))
+        );
+
+        List<RepositoriesSearchOut> results = scoringService.convertAndEnrichWithScoreMany(
+                new GithubRepositorySearchResults(1, 1, 1, 1, repositories));
+
+        assertThat(results).extracting(RepositoriesSearchOut::recency).containsExactly(
+                "1 month ago",
+                Period.between(today.minusMonths(1).plusDays(1), today).getDays() + " days ago",
+                "3 years ago",
+                "80 years ago",
+                "Today"
+        );
+    }
+
+    @Test
+    void convertAndEnrichWithScoreMany_shouldSortByScoreDescendingKeepingGithubOrderForTies() {
+        List<GithubRepositoryItemResponse> repositories = List.of(
+                repository(1L, 10, 1),
+                repository(2L, 500, 40),
+                repository(3L, 10, 1),
+                repository(4L, 250, 20),
+                repository(5L, 10, 1)
+        );
+
+        List<RepositoriesSearchOut> results = scoringService.convertAndEnrichWithScoreMany(
+                new GithubRepositorySearchResults(10, 500, 1, 40, repositories));
+
+        assertThat(results).extracting(RepositoriesSearchOut::name)
+                .containsExactly("repo-2", "repo-4", "repo-1", "repo-3", "repo-5");
+        assertThat(results).extracting(RepositoriesSearchOut::popularityScore)
+                .containsExactly("10", "4.9", "0", "0", "0");
+    }
+
+    @Test
+    void convertAndEnrichWithScoreMany_shouldMatchReferenceOrderingForLargeResultSets() {
+        List<GithubRepositoryItemResponse> repositories = SyntheticRepositories.repositories(5_000, 42);
+        GithubRepositorySearchResults searchResults = new GithubRepositorySearchResults(
+                repositories.stream().mapToInt(GithubRepositoryItemResponse::stargazersCount).min().orElseThrow(),
+                repositories.stream().mapToInt(GithubRepositoryItemResponse::stargazersCount).max().orElseThrow(),
+                repositories.stream().mapToInt(GithubRepositoryItemResponse::forksCount).min().orElseThrow(),
+                repositories.stream().mapToInt(GithubRepositoryItemResponse::forksCount).max().orElseThrow(),
+                repositories
+        );
+
+        List<RepositoriesSearchOut> results = scoringService.convertAndEnrichWithScoreMany(searchResults);
+
+        // Stable reference: popularity descending, then the input position
+        List<String> expectedOrder = IntStream.range(0, repositories.size()).boxed()
+                .sorted(Comparator.comparingDouble((Integer index) -> referenceScore(repositories.get(index), searchResults))
+                        .reversed()
+                        .thenComparingInt(index -> index))
+                .map(index -> repositories.get(index).name())
+                .toList();
+        assertThat(results).extracting(RepositoriesSearchOut::name).containsExactlyElementsOf(expectedOrder);
+    }
+
+    @Test
+    void convertAndEnrichWithScoreTop_shouldReturnPrefixOfFullRanking() {
+        List<GithubRepositoryItemResponse> repositories = SyntheticRepositories.repositories(2_000, 7);
+        GithubRepositorySearchResults searchResults = new GithubRepositorySearchResults(0, 50_000, 0, 10_000, repositories);
+        List<RepositoriesSearchOut> all = scoringService.convertAndEnrichWithScoreMany(searchResults);
+
+        for (int limit : new int[] {1, 2, 20, 50, 1_999}) {
+            assertThat(scoringService.convertAndEnrichWithScoreTop(searchResults, limit))
+                    .as("limit %d", limit)
+                    .containsExactlyElementsOf(all.subList(0, limit));
+        }
+        assertThat(scoringService.convertAndEnrichWithScoreTop(searchResults, 5_000)).isEqualTo(all);
+    }
+
+    @Test
+    void convertAndEnrichWithScoreTop_withTies_shouldKeepGithubOrder() {
+        List<GithubRepositoryItemResponse> repositories = List.of(
+                repository(1L, 10, 1),
+                repository(2L, 500, 40),
+                repositoryTie(3L),
+                repositoryTie(4L),
+                repositoryTie(5L)
+        );
+
+        List<RepositoriesSearchOut> top = scoringService.convertAndEnrichWithScoreTop(
+                new GithubRepositorySearchResults(10, 500, 1, 40, repositories), 3);
+
+        assertThat(top).extracting(RepositoriesSearchOut::name).containsExactly("repo-2", "repo-3", "repo-4");
+    }
+
+    @Test
+    void formatScore_shouldRenderWholeNumbersWithoutDecimal() {
+        assertThat(ScoringServiceImpl.formatScore(0.0)).isEqualTo("0");
+        assertThat(ScoringServiceImpl.formatScore(0.04)).isEqualTo("0");
+        assertThat(ScoringServiceImpl.formatScore(0.05)).isEqualTo("0.1");
+        assertThat(ScoringServiceImpl.formatScore(6.96)).isEqualTo("7");
+        assertThat(ScoringServiceImpl.formatScore(7.45)).isEqualTo("7.5");
+        assertThat(ScoringServiceImpl.formatScore(10.0)).isEqualTo("10");
+    }
+
+    private static double referenceScore(GithubRepositoryItemResponse repository, GithubRepositorySearchResults bounds) {
+        double stars = (double) (repository.stargazersCount() - bounds.minStars()) / (bounds.maxStars() - bounds.minStars());
+        double forks = (double) (repository.forksCount() - bounds.minForks()) / (bounds.maxForks() - bounds.minForks());
+        return stars * 0.5 + forks;
+    }
+
+    private static GithubRepositoryItemResponse repositoryTie(long id) {
+        return repository(id, 250, 20);
+    }
+
+    private static GithubRepositoryItemResponse updatedOn(long id, LocalDate updated) {
+        return new GithubRepositoryItemResponse(
+                id, "repo-" + id, "owner/repo-" + id, "https://github.com/owner/repo-" + id,
+                1, 1, updated + "T10:00:00Z", "Java", null);
+    }
+
+    private static GithubRepositoryItemResponse repository(long id, int stars, int forks) {
+        return new GithubRepositoryItemResponse(
+                id, "repo-" + id, "owner/repo-" + id, "https://github.com/owner/repo-" + id,
+                stars, forks, null, "Java", null);
+    }
 }
@@ -0,0 +1,231 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.mmazurovsky.githubreposobserver.cache.DeltaRefreshBases;
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.cache.PopularSearches;
+import com.mmazurovsky.githubreposobserver.cache.SearchCacheKey;
+import com.mmazurovsky.githubreposobserver.cache.SearchResultsCacheImpl;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchProgress;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesBatchResult;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchFrame;
+import com.mmazurovsky.githubreposobserver.dto.out.RepositoriesSearchOut;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SearchAndScoringServiceImplTest {
+
+    private static final GithubRepositorySearchResults RESULTS = new GithubRepositorySearchResults(1, 10, 1, 5, List.of(
+            new GithubRepositoryItemResponse(1, "repo", "owner/repo", "https://github.com/owner/repo", 10, 5, null, null, null)));
+
+    private final StubSearchService searchService = new StubSearchService();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicBoolean missNextLookup = new AtomicBoolean();
+    private final SearchResultsCacheImpl cache = new SearchResultsCacheImpl(Duration.ofMinutes(10), DataSize.ofMegabytes(1),
+            new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1))) {
+        // Stands in for a lookup made just before another search filled the cache
+        @Override
+        public Optional<List<RepositoriesSearchOut>> get(SearchCacheKey key) {
+            return missNextLookup.getAndSet(false) ? Optional.empty() : super.get(key);
+        }
+    };
+    private final DeltaRefreshBases deltaBases = new DeltaRefreshBases(true, Duration.ofMinutes(5), Duration.ofHours(1), 16);
+
+    @Test
+    void searchBatch_shouldBoundConcurrentSearchesWithinOneGroup() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        searchService.search = request -> Mono.defer(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    return Mono.delay(Duration.ofMillis(50)).thenReturn(RESULTS);
+                })
+                // Before the result is passed on, since the next search may start synchronously with it
+                .doOnTerminate(running::decrementAndGet);
+        // Same keywords, language and date: one group of six distinct searches
+        List<RepositoriesSearchIn> queries = List.of(1, 2, 3, 4, 5, 6).stream()
+                .map(maxPages -> new RepositoriesSearchIn("spring", null, "java", maxPages, null))
+                .toList();
+
+        List<RepositoriesBatchResult> results = service(2, Duration.ofMinutes(1)).searchBatch(queries)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(results).hasSize(6);
+        assertThat(peak.get()).isEqualTo(2);
+    }
+
+    @Test
+    void searchAndOutputRepositoriesWithScores_whenTheCacheFillsAfterTheLookup_shouldNotSearchAgain() {
+        AtomicInteger searches = new AtomicInteger();
+        searchService.search = request -> Mono.fromSupplier(() -> {
+            searches.incrementAndGet();
+            return RESULTS;
+        });
+        SearchAndScoringServiceImpl service = service(4, Duration.ofMinutes(1));
+        RepositoriesSearchIn request = new RepositoriesSearchIn("spring", null, null, 1, null);
+        List<RepositoriesSearchOut> first = service.searchAndOutputRepositoriesWithScores(request).block(Duration.ofSeconds(5));
+
+        missNextLookup.set(true);
+        List<RepositoriesSearchOut> second = service.searchAndOutputRepositoriesWithScores(request).block(Duration.ofSeconds(5));
+
+        assertThat(searches.get()).isEqualTo(1);
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void streamRepositoriesWithScores_whenALaterPageStalls_shouldFailAtTheDeadlineAndCancelTheSearch() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        searchService.stream = request -> Flux.concat(
+                        Flux.just(new SearchProgress(RESULTS, 1, 3, false)),
+                        Flux.<SearchProgress>never())
+                .doOnCancel(() -> cancelled.set(true));
+
+        StepVerifier.create(service(4, Duration.ofMillis(300))
+                        .streamRepositoriesWithScores(new RepositoriesSearchIn("spring", null, null, 3, null)))
+                .expectNextMatches(frame -> RepositoriesSearchFrame.TYPE_UPDATE.equals(frame.type()))
+                .expectErrorSatisfies(ex -> assertThat(ex).isSameAs(SearchAndScoringServiceImpl.SEARCH_DEADLINE_EXCEEDED_EXCEPTION))
+                .verify(Duration.ofSeconds(5));
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void refresh_whenTheDeltaPageFallsBack_shouldKeepTheBaseAndTheCachedResults() throws InterruptedException {
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> Mono.just(filter.pushedSince() != null
+                ? GithubClient.FALLBACK_PAGE
+                : new GithubRepositorySearchResponse(RESULTS.repositories().size(), false, page == 1 ? RESULTS.repositories() : List.of()));
+        SearchAndScoringServiceImpl service = service(searchService(githubClient), 4, Duration.ofMinutes(1));
+        RepositoriesSearchIn request = new RepositoriesSearchIn("spring", null, null, 1, null);
+        SearchCacheKey key = SearchCacheKey.from(request);
+
+        service.refresh(request).block(Duration.ofSeconds(5));
+        Instant since = deltaBases.get(key).map(deltaBases::since).orElseThrow();
+        long cachedAt = cache.snapshot().get(key).writtenAtMillis();
+        Thread.sleep(20);
+
+        StepVerifier.create(service.refresh(request))
+                .expectErrorSatisfies(ex -> assertThat(ex).isSameAs(SearchServiceImpl.DELTA_PAGE_UNAVAILABLE_EXCEPTION))
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(deltaBases.get(key).map(deltaBases::since)).contains(since);
+        assertThat(cache.snapshot().get(key).writtenAtMillis()).isEqualTo(cachedAt);
+    }
+
+    @Test
+    void searchAndOutputRepositoriesWithScores_whenAMiddlePageFallsBack_shouldServeButNotCacheTheResults() {
+        SearchAndScoringServiceImpl service = service(searchService(clientFallingBackOnPage(2)), 4, Duration.ofMinutes(1));
+        RepositoriesSearchIn request = new RepositoriesSearchIn("spring", null, null, 3, null);
+
+        List<RepositoriesSearchOut> results = service.searchAndOutputRepositoriesWithScores(request).block(Duration.ofSeconds(5));
+
+        assertThat(results).hasSize(2);
+        assertThat(cache.get(SearchCacheKey.from(request))).isEmpty();
+        assertThat(deltaBases.get(SearchCacheKey.from(request))).isEmpty();
+    }
+
+    @Test
+    void streamRepositoriesWithScores_whenAMiddlePageFallsBack_shouldServeButNotCacheTheCompleteFrame() {
+        SearchAndScoringServiceImpl service = service(searchService(clientFallingBackOnPage(2)), 4, Duration.ofMinutes(1));
+        RepositoriesSearchIn request = new RepositoriesSearchIn("spring", null, null, 3, null);
+
+        RepositoriesSearchFrame last = service.streamRepositoriesWithScores(request).blockLast(Duration.ofSeconds(5));
+
+        assertThat(last.type()).isEqualTo(RepositoriesSearchFrame.TYPE_COMPLETE);
+        assertThat(last.repositories()).hasSize(2);
+        assertThat(cache.get(SearchCacheKey.from(request))).isEmpty();
+    }
+
+    @Test
+    void searchAndOutputRepositoriesWithScores_whenEveryPageArrives_shouldCacheTheResults() {
+        SearchAndScoringServiceImpl service = service(searchService(clientFallingBackOnPage(0)), 4, Duration.ofMinutes(1));
+        RepositoriesSearchIn request = new RepositoriesSearchIn("spring", null, null, 3, null);
+
+        service.searchAndOutputRepositoriesWithScores(request).block(Duration.ofSeconds(5));
+
+        assertThat(cache.get(SearchCacheKey.from(request))).hasValueSatisfying(cached -> assertThat(cached).hasSize(3));
+    }
+
+    // One repository per page of a three-page result set; the given page comes back as the fallback page
+    private static GithubClient clientFallingBackOnPage(int fallbackPage) {
+        return (request, filter, page, perPage, sort, order) -> {
+            if (page == fallbackPage && perPage > 1) {
+                return Mono.just(GithubClient.FALLBACK_PAGE);
+            }
+            return Mono.just(new GithubRepositorySearchResponse(3, false, List.of(new GithubRepositoryItemResponse(
+                    page, "repo" + page, "owner/repo" + page, "https://github.com/owner/repo" + page, 10 * page, page, null, null, null))));
+        };
+    }
+
+    private SearchServiceImpl searchService(GithubClient githubClient) {
+        SearchMetrics metrics = new SearchMetrics(registry);
+        MappedSearchSnapshotStore noStore = new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1));
+        return new SearchServiceImpl(githubClient,
+                new NormalizationStatsServiceImpl(githubClient, metrics, noStore, Duration.ofMinutes(10), 100), metrics, true);
+    }
+
+    private SearchAndScoringServiceImpl service(int batchConcurrency, Duration deadline) {
+        return service(searchService, batchConcurrency, deadline);
+    }
+
+    private SearchAndScoringServiceImpl service(SearchService searchService, int batchConcurrency, Duration deadline) {
+        return new SearchAndScoringServiceImpl(
+                searchService,
+                request -> Mono.error(new UnsupportedOperationException()),
+                new ScoringServiceImpl(),
+                cache,
+                new PopularSearches(16),
+                deltaBases,
+                new SearchMetrics(registry),
+                20,
+                batchConcurrency,
+                deadline,
+                Duration.ofMinutes(10)
+        );
+    }
+
+    private static final class StubSearchService implements SearchService {
+        Function<RepositoriesSearchIn, Mono<GithubRepositorySearchResults>> search =
+                request -> Mono.just(RESULTS);
+        Function<RepositoriesSearchIn, Flux<SearchProgress>> stream =
+                request -> Flux.error(new UnsupportedOperationException());
+
+        @Override
+        public Mono<GithubRepositorySearchResults> searchRepositories(RepositoriesSearchIn request) {
+            return search.apply(request);
+        }
+
+        @Override
+        public Flux<SearchProgress> streamRepositories(RepositoriesSearchIn request) {
+            return stream.apply(request);
+        }
+
+        @Override
+        public Mono<GithubRepositorySearchResults> refreshRepositories(
+                RepositoriesSearchIn request,
+                GithubRepositorySearchResults previous,
+                Instant since
+        ) {
+            return Mono.error(new UnsupportedOperationException());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.client.GithubClientImpl;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SearchServiceImplCancellationTest {
+
+    private static final RepositoriesSearchIn REQUEST = new RepositoriesSearchIn("spring", null, null, 3, null);
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger cancelled = new AtomicInteger();
+
+    @Test
+    void searchRepositories_whenCancelled_shouldCancelEveryCallInFlight() {
+        // Page 1 arrives; pages 2-3 and the three normalization lookups (too many results to derive) hang
+        SearchServiceImpl searchService = searchService(page -> page == 1 ? Mono.just(firstPage()) : Mono.never());
+
+        Disposable search = searchService.searchRepositories(REQUEST).subscribe();
+        assertThat(started.get()).isEqualTo(6);
+
+        search.dispose();
+
+        assertThat(cancelled.get()).isEqualTo(5);
+    }
+
+    @Test
+    void streamRepositories_whenCancelled_shouldCancelEveryCallInFlight() {
+        SearchServiceImpl searchService = searchService(page -> page == 1 ? Mono.just(firstPage()) : Mono.never());
+
+        Disposable stream = searchService.streamRepositories(REQUEST).subscribe();
+        assertThat(started.get()).isEqualTo(6);
+
+        stream.dispose();
+
+        assertThat(cancelled.get()).isEqualTo(5);
+    }
+
+    @Test
+    void searchRepositories_whenPageFailsFatally_shouldCancelSiblingCalls() {
+        SearchServiceImpl searchService = searchService(page -> switch (page) {
+            case 1 -> Mono.just(firstPage());
+            case 2 -> Mono.error(GithubClientImpl.GITHUB_4XX_CLIENT_ERROR_EXCEPTION);
+            default -> Mono.never();
+        });
+
+        StepVerifier.create(searchService.searchRepositories(REQUEST))
+                .expectErrorSatisfies(error -> assertThat(error).isSameAs(GithubClientImpl.GITHUB_4XX_CLIENT_ERROR_EXCEPTION))
+                .verify(Duration.ofSeconds(5));
+
+        // Page 3 and the three normalization lookups
+        assertThat(cancelled.get()).isEqualTo(4);
+    }
+
+    private SearchServiceImpl searchService(PageResponder pages) {
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> Mono.defer(() -> {
+            Mono<GithubRepositorySearchResponse> response = perPage == 1 ? Mono.never() : pages.respond(page);
+            return response
+                    .doOnSubscribe(subscription -> started.incrementAndGet())
+                    .doOnCancel(cancelled::incrementAndGet);
+        });
+        SearchMetrics metrics = new SearchMetrics(new SimpleMeterRegistry());
+        MappedSearchSnapshotStore noStore = new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1));
+        return new SearchServiceImpl(
+                githubClient, new NormalizationStatsServiceImpl(githubClient, metrics, noStore, Duration.ofMinutes(10), 100), metrics, true);
+    }
+
+    private static GithubRepositorySearchResponse firstPage() {
+        return new GithubRepositorySearchResponse(10_000, false, List.of(
+                new GithubRepositoryItemResponse(1, "repo-1", "owner/repo-1", "https://github.com/owner/repo-1", 10, 5, null, null, null)));
+    }
+
+    private interface PageResponder {
+        Mono<GithubRepositorySearchResponse> respond(int page);
+    }
+}
@@ -0,0 +1,85 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class SearchServiceImplDeduplicationTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<Integer, AtomicInteger> pageReads = new ConcurrentHashMap<>();
+
+    /**
+     * Repository 3 rises above repository 2 after page 1 was read: page 2 then repeats repository 2 and
+     * repository 3 is on neither page, until page 1 is read again. Normalization lookups don't count as reads.
+     */
+    private final GithubClient driftingClient = (request, filter, page, perPage, sort, order) -> {
+        if (perPage == 1) {
+            return Mono.just(new GithubRepositorySearchResponse(4, false, List.of(repository(1))));
+        }
+        int read = pageReads.computeIfAbsent(page, key -> new AtomicInteger()).incrementAndGet();
+        List<GithubRepositoryItemResponse> items = switch (page) {
+            case 1 -> read == 1 ? List.of(repository(1), repository(2)) : List.of(repository(1), repository(3));
+            case 2 -> List.of(repository(2), repository(4));
+            default -> List.of();
+        };
+        return Mono.just(new GithubRepositorySearchResponse(4, false, items));
+    };
+
+    @Test
+    void searchRepositories_shouldDropRepositoriesRepeatedAcrossPages() {
+        GithubRepositorySearchResults results = searchService(false).searchRepositories(request()).block(Duration.ofSeconds(5));
+
+        assertThat(results).isNotNull();
+        assertThat(results.repositories()).extracting(GithubRepositoryItemResponse::id).containsExactly(1L, 2L, 4L);
+        assertThat(registry.get("search.duplicates").counter().count()).isEqualTo(1);
+        assertThat(pageReads.get(1)).hasValue(1);
+    }
+
+    @Test
+    void searchRepositories_withRefetchOnDrift_shouldRecoverRepositoryThatMovedAcrossBoundary() {
+        GithubRepositorySearchResults results = searchService(true).searchRepositories(request()).block(Duration.ofSeconds(5));
+
+        assertThat(results).isNotNull();
+        assertThat(results.repositories()).extracting(GithubRepositoryItemResponse::id).containsExactly(1L, 2L, 4L, 3L);
+        assertThat(registry.get("search.drift.recovered").counter().count()).isEqualTo(1);
+        assertThat(pageReads.get(1)).hasValue(2);
+    }
+
+    private SearchServiceImpl searchService(boolean refetchOnDrift) {
+        SearchMetrics metrics = new SearchMetrics(registry);
+        return new SearchServiceImpl(
+                driftingClient,
+                new NormalizationStatsServiceImpl(
+                        driftingClient, metrics, new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1)), Duration.ofMinutes(10), 100),
+                metrics,
+                refetchOnDrift
+        );
+    }
+
+    private static RepositoriesSearchIn request() {
+        return new RepositoriesSearchIn("spring", null, null, 2, null);
+    }
+
+    private static GithubRepositoryItemResponse repository(long id) {
+        return new GithubRepositoryItemResponse(id, "repo-" + id, "owner/repo-" + id, "https://github.com/owner/repo-" + id,
+                (int) (100 - id), (int) (50 - id), null, null, null);
+    }
+}
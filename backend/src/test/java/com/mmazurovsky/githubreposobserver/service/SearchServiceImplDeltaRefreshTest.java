@@ -0,0 +1,111 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.GithubRepositorySearchResults;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchFilter;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SearchServiceImplDeltaRefreshTest {
+
+    private static final Instant SINCE = Instant.parse("2024-05-01T10:00:00.123Z");
+    private static final RepositoriesSearchIn REQUEST = new RepositoriesSearchIn("spring", null, null, 2, null);
+    private static final GithubRepositorySearchResults PREVIOUS = new GithubRepositorySearchResults(
+            10, 30, 5, 15, List.of(repository(1, 30, 15), repository(2, 20, 10), repository(3, 10, 5)));
+
+    private final List<SearchFilter> filters = new CopyOnWriteArrayList<>();
+
+    @Test
+    void refreshRepositories_shouldAskOnlyForRepositoriesPushedSinceTheLastRefresh() {
+        refresh(List.of());
+
+        assertThat(filters).singleElement()
+                .satisfies(filter -> assertThat(filter.qualifiers()).containsExactly("pushed:>=2024-05-01T10:00:00Z"));
+    }
+
+    @Test
+    void refreshRepositories_whenNothingChanged_shouldReturnThePreviousResults() {
+        assertThat(refresh(List.of())).isSameAs(PREVIOUS);
+        // Pushed, but nothing the scorer looks at moved
+        assertThat(refresh(List.of(repository(2, 20, 10)))).isSameAs(PREVIOUS);
+    }
+
+    @Test
+    void refreshRepositories_shouldMergeChangedRepositoriesByIdAndWidenTheBounds() {
+        GithubRepositorySearchResults refreshed = refresh(List.of(repository(3, 50, 25), repository(4, 2, 1)));
+
+        assertThat(refreshed.repositories()).extracting(GithubRepositoryItemResponse::id).containsExactly(3L, 1L, 2L, 4L);
+        assertThat(refreshed.repositories()).filteredOn(repository -> repository.id() == 3).singleElement()
+                .satisfies(repository -> assertThat(repository.stargazersCount()).isEqualTo(50));
+        assertThat(refreshed.minStars()).isEqualTo(2);
+        assertThat(refreshed.maxStars()).isEqualTo(50);
+        assertThat(refreshed.minForks()).isEqualTo(1);
+        assertThat(refreshed.maxForks()).isEqualTo(25);
+    }
+
+    @Test
+    void mergeDelta_overCapacity_shouldKeepTheTopRepositoriesByForks() {
+        GithubRepositorySearchResults merged = SearchServiceImpl.mergeDelta(PREVIOUS, List.of(repository(4, 12, 12)), 3);
+
+        assertThat(merged.repositories()).extracting(GithubRepositoryItemResponse::id).containsExactly(1L, 4L, 2L);
+    }
+
+    @Test
+    void refreshRepositories_whenDeltaIsAsLargeAsTheSearch_shouldCompleteEmpty() {
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) ->
+                Mono.just(new GithubRepositorySearchResponse(150, false, List.of()));
+
+        GithubRepositorySearchResults refreshed = searchService(githubClient).refreshRepositories(REQUEST, PREVIOUS, SINCE)
+                .block(Duration.ofSeconds(5));
+
+        assertThat(refreshed).isNull();
+    }
+
+    @Test
+    void refreshRepositories_whenADeltaPageFallsBack_shouldFailRatherThanReportNoChanges() {
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> Mono.just(GithubClient.FALLBACK_PAGE);
+
+        StepVerifier.create(searchService(githubClient).refreshRepositories(REQUEST, PREVIOUS, SINCE))
+                .expectErrorSatisfies(ex -> assertThat(ex).isSameAs(SearchServiceImpl.DELTA_PAGE_UNAVAILABLE_EXCEPTION))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private GithubRepositorySearchResults refresh(List<GithubRepositoryItemResponse> pushed) {
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> {
+            filters.add(filter);
+            return Mono.just(new GithubRepositorySearchResponse(pushed.size(), false, pushed));
+        };
+        GithubRepositorySearchResults refreshed = searchService(githubClient).refreshRepositories(REQUEST, PREVIOUS, SINCE)
+                .block(Duration.ofSeconds(5));
+        assertThat(refreshed).isNotNull();
+        return refreshed;
+    }
+
+    private static SearchServiceImpl searchService(GithubClient githubClient) {
+        SearchMetrics metrics = new SearchMetrics(new SimpleMeterRegistry());
+        MappedSearchSnapshotStore noStore = new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1));
+        return new SearchServiceImpl(
+                githubClient, new NormalizationStatsServiceImpl(githubClient, metrics, noStore, Duration.ofMinutes(10), 100), metrics, true);
+    }
+
+    private static GithubRepositoryItemResponse repository(long id, int stars, int forks) {
+        return new GithubRepositoryItemResponse(id, "repo-" + id, "owner/repo-" + id, "https://github.com/owner/repo-" + id,
+                stars, forks, null, null, null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mmazurovsky.githubreposobserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.cache.MappedSearchSnapshotStore;
+import com.mmazurovsky.githubreposobserver.client.GithubClient;
+import com.mmazurovsky.githubreposobserver.dto.dto.SearchProgress;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositorySearchResponse;
+import com.mmazurovsky.githubreposobserver.dto.in.RepositoriesSearchIn;
+import com.mmazurovsky.githubreposobserver.metrics.SearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class SearchServiceImplStreamTest {
+
+    private SearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        // Three pages of two repositories each; total_count fits, so bounds are derived from the pages
+        GithubClient githubClient = (request, filter, page, perPage, sort, order) -> Mono.just(new GithubRepositorySearchResponse(
+                6, false, List.of(repository(page * 10L, page * 10), repository(page * 10L + 1, page * 10 + 1))));
+        SearchMetrics metrics = new SearchMetrics(new SimpleMeterRegistry());
+        MappedSearchSnapshotStore noStore = new MappedSearchSnapshotStore("", Duration.ofMinutes(10), Duration.ofHours(1));
+        searchService = new SearchServiceImpl(
+                githubClient, new NormalizationStatsServiceImpl(githubClient, metrics, noStore, Duration.ofMinutes(10), 100), metrics, true);
+    }
+
+    @Test
+    void streamRepositories_shouldEmitSnapshotPerPageEndingWithComplete() {
+        List<SearchProgress> progress = searchService.streamRepositories(new RepositoriesSearchIn("spring", null, null, 3, null))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(progress).extracting(SearchProgress::pagesReceived).containsExactly(1, 2, 3);
+        assertThat(progress).extracting(SearchProgress::complete).containsExactly(false, false, true);
+        assertThat(progress).extracting(snapshot -> snapshot.results().repositories().size()).containsExactly(2, 4, 6);
+    }
+
+    @Test
+    void streamRepositories_completeSnapshot_shouldMatchNonStreamingSearch() {
+        RepositoriesSearchIn request = new RepositoriesSearchIn("spring", null, null, 3, null);
+
+        SearchProgress complete = searchService.streamRepositories(request).last().block(Duration.ofSeconds(5));
+
+        assertThat(complete).isNotNull();
+        assertThat(complete.results()).isEqualTo(searchService.searchRepositories(request).block(Duration.ofSeconds(5)));
+    }
+
+    private static GithubRepositoryItemResponse repository(long id, int stars) {
+        return new GithubRepositoryItemResponse(id, "repo-" + id, "owner/repo-" + id, "https://github.com/owner/repo-" + id,
+                stars, stars / 2, null, null, null);
+    }
+}
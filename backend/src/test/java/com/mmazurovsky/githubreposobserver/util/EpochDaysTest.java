@@ -0,0 +1,42 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class EpochDaysTest {
+
+    @Test
+    void parse_shouldMatchJavaTimeForEveryDayAcrossLeapYearsAndCenturies() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1)); date = date.plusDays(1)) {
+            assertThat(EpochDays.parse(date + "T23:59:59Z")).as(date.toString()).isEqualTo(date.toEpochDay());
+        }
+    }
+
+    @Test
+    void parse_shouldUseTheDayWrittenInTheTimestampLikeToLocalDate() {
+        String timestamp = "2024-02-29T23:30:00-05:00";
+
+        assertThat(EpochDays.parse(timestamp)).isEqualTo(OffsetDateTime.parse(timestamp).toLocalDate().toEpochDay());
+    }
+
+    @Test
+    void parse_withMalformedInput_shouldReturnUnknown() {
+        assertThat(EpochDays.parse((String) null)).isEqualTo(EpochDays.UNKNOWN);
+        assertThat(EpochDays.parse("")).isEqualTo(EpochDays.UNKNOWN);
+        assertThat(EpochDays.parse("invalid-date-format")).isEqualTo(EpochDays.UNKNOWN);
+        assertThat(EpochDays.parse("2023-02-29T00:00:00Z")).isEqualTo(EpochDays.UNKNOWN);
+        assertThat(EpochDays.parse("2023-13-01T00:00:00Z")).isEqualTo(EpochDays.UNKNOWN);
+        assertThat(EpochDays.parse("2023-1-01T00:00:00Z")).isEqualTo(EpochDays.UNKNOWN);
+        assertThat(EpochDays.parse("2023-01-01 00:00:00")).isEqualTo(EpochDays.UNKNOWN);
+    }
+
+    @Test
+    void toLocalDate_shouldRoundTripKnownDaysAndMapUnknownToNull() {
+        assertThat(EpochDays.toLocalDate(EpochDays.parse("2020-01-02T03:04:05Z"))).isEqualTo(LocalDate.of(2020, 1, 2));
+        assertThat(EpochDays.toLocalDate(EpochDays.UNKNOWN)).isNull();
+    }
+}
@@ -0,0 +1,45 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class LongHashSetTest {
+
+    @Test
+    void add_shouldReportOnlyFirstInsertionIncludingZeroAndNegativeKeys() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertThat(set.add(0L)).isTrue();
+        assertThat(set.add(0L)).isFalse();
+        assertThat(set.add(-7L)).isTrue();
+        assertThat(set.add(Long.MIN_VALUE)).isTrue();
+        assertThat(set.add(-7L)).isFalse();
+
+        assertThat(set.size()).isEqualTo(3);
+        assertThat(set.contains(0L)).isTrue();
+        assertThat(set.contains(7L)).isFalse();
+    }
+
+    @Test
+    void add_shouldBehaveLikeHashSetWhileGrowingPastExpectedSize() {
+        LongHashSet set = new LongHashSet(8);
+        Set<Long> reference = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int i = 0; i < 20_000; i++) {
+            // Narrow range so roughly half the inserts are repeats
+            long value = random.nextLong(15_000);
+            assertThat(set.add(value)).isEqualTo(reference.add(value));
+        }
+
+        assertThat(set.size()).isEqualTo(reference.size());
+        for (long value = 0; value < 15_000; value++) {
+            assertThat(set.contains(value)).isEqualTo(reference.contains(value));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_concurrentCallsWithSameKey_shouldShareOneExecution() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.One<Integer> upstream = Sinks.one();
+        int callers = 8;
+
+        Mono<List<Integer>> results = Flux.range(0, callers)
+                .flatMap(i -> singleFlight.execute("bot", () -> {
+                    executions.incrementAndGet();
+                    return upstream.asMono();
+                }))
+                .collectList();
+
+        StepVerifier.create(results)
+                .then(() -> upstream.tryEmitValue(42))
+                .assertNext(values -> assertThat(values).hasSize(callers).containsOnly(42))
+                .verifyComplete();
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void execute_withPartition_shouldShareOnlyWithinAPartitionAndRunInItsContext() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(context -> context.getOrDefault("class", "interactive"));
+        AtomicInteger executions = new AtomicInteger();
+        Sinks.One<String> release = Sinks.one();
+        Mono<String> call = singleFlight.execute("bot", () -> Mono.deferContextual(context -> {
+            executions.incrementAndGet();
+            return release.asMono().map(value -> value + "@" + context.getOrDefault("class", "interactive"));
+        }));
+
+        Mono<List<String>> results = Flux.merge(
+                        call.contextWrite(Context.of("class", "batch")),
+                        call,
+                        call.contextWrite(Context.of("class", "batch")))
+                .collectList();
+
+        StepVerifier.create(results)
+                .then(() -> release.tryEmitValue("done"))
+                .assertNext(values -> assertThat(values).containsExactlyInAnyOrder("done@batch", "done@interactive", "done@batch"))
+                .verifyComplete();
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_afterCompletion_shouldRunAgain() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("bot", () -> Mono.fromSupplier(executions::incrementAndGet)).block(Duration.ofSeconds(5));
+        singleFlight.execute("bot", () -> Mono.fromSupplier(executions::incrementAndGet)).block(Duration.ofSeconds(5));
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void execute_rightAfterAnAsynchronousCompletion_shouldRunAgainRatherThanReuseTheResult() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        // Each call completes on a timer thread, so the next one starts while that thread may still be finishing
+        for (int call = 1; call <= 200; call++) {
+            Integer result = singleFlight.execute("bot", () -> Mono.delay(Duration.ofMillis(1)).map(tick -> executions.incrementAndGet()))
+                    .block(Duration.ofSeconds(5));
+            assertThat(result).isEqualTo(call);
+        }
+        assertThat(singleFlight.coalescedCount()).isZero();
+    }
+
+    @Test
+    void execute_whenSupplierFails_shouldPropagateOriginalException() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        StepVerifier.create(singleFlight.execute("bot", () -> Mono.error(failure)))
+                .expectErrorSatisfies(error -> assertThat(error).isSameAs(failure))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void execute_whenSupplierIsEmpty_shouldCompleteEmpty() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        StepVerifier.create(singleFlight.execute("bot", Mono::empty))
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_whenOneOfSeveralSubscribersCancels_shouldKeepRunningForTheRest() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.One<Integer> upstream = Sinks.one();
+        Mono<Integer> call = singleFlight.execute("bot", () -> upstream.asMono().doOnCancel(() -> cancelled.set(true)));
+
+        Disposable leaving = call.subscribe();
+        StepVerifier.create(call)
+                .then(leaving::dispose)
+                .then(() -> upstream.tryEmitValue(42))
+                .expectNext(42)
+                .verifyComplete();
+
+        assertThat(cancelled).isFalse();
+    }
+
+    @Test
+    void execute_whenEverySubscriberCancels_shouldCancelTheExecution() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger executions = new AtomicInteger();
+        Mono<Integer> call = singleFlight.execute("bot", () -> {
+            executions.incrementAndGet();
+            return Mono.<Integer>never().doOnCancel(() -> cancelled.set(true));
+        });
+
+        Disposable first = call.subscribe();
+        Disposable second = call.subscribe();
+        first.dispose();
+        second.dispose();
+
+        assertThat(cancelled).isTrue();
+        // The abandoned flight is gone, so the next caller starts over instead of waiting on it
+        call.subscribe().dispose();
+        assertThat(executions.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mmazurovsky.githubreposobserver.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.mmazurovsky.githubreposobserver.util.SpaceSaving.HeavyHitter;
+
+class SpaceSavingTest {
+
+    @Test
+    void top_shouldKeepHeavyHittersAmongManyRareKeys() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(16);
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int i = 0; i < 10_000; i++) {
+            // 30% "hot", 10% "warm", the rest spread over a thousand rare keys
+            double roll = random.nextDouble();
+            sketch.offer(roll < 0.3 ? "hot" : roll < 0.4 ? "warm" : "rare-" + random.nextInt(1_000));
+        }
+
+        assertThat(sketch.size()).isEqualTo(16);
+        assertThat(sketch.top(2)).extracting(HeavyHitter::key).containsExactly("hot", "warm");
+        HeavyHitter<String> hot = sketch.top(1).get(0);
+        assertThat(hot.guaranteedCount()).isLessThanOrEqualTo(3_000 + 200).isGreaterThan(2_500);
+    }
+
+    @Test
+    void offer_shouldInheritEvictedCountAsError() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(2);
+        sketch.offer("a");
+        sketch.offer("a");
+        sketch.offer("b");
+
+        sketch.offer("c");
+
+        assertThat(sketch.top(2)).containsExactly(new HeavyHitter<>("a", 2, 0), new HeavyHitter<>("c", 2, 1));
+    }
+
+    @Test
+    void decay_shouldHalveCountsAndDropKeysReachingZero() {
+        SpaceSaving<String> sketch = new SpaceSaving<>(4);
+        for (int i = 0; i < 6; i++) {
+            sketch.offer("popular");
+        }
+        sketch.offer("once");
+
+        sketch.decay();
+
+        assertThat(sketch.top(4)).containsExactly(new HeavyHitter<>("popular", 3, 0));
+    }
+}
@@ -0,0 +1,274 @@
+package com.mmazurovsky.githubreposobserver.standin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded stand-in for GitHub's {@code GET /search/repositories}, for exercising the service offline.
+ * Every query gets a stable synthetic corpus sorted by {@code stars}/{@code forks} in either order, with
+ * GitHub's 1000-result window, ETags and 304s, per-token {@code X-RateLimit-*} headers and primary rate
+ * limiting, plus injected latency and 403/422/502 failures as configured in {@link StandInSettings}.
+ * Point the service at it with {@code github.api.base-url=}{@link #baseUrl()}.
+ */
+public final class GithubApiStandIn implements AutoCloseable {
+    private static final String SEARCH_PATH = "/search/repositories";
+    private static final int SEARCH_WINDOW = 1_000;
+    private static final int MAX_PER_PAGE = 100;
+    private static final int MAX_CACHED_CORPORA = 512;
+
+    private final StandInSettings settings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, List<GithubRepositoryItemResponse>> sortedCorpora = new ConcurrentHashMap<>();
+    private final Map<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> responsesByStatus = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+
+    private GithubApiStandIn(StandInSettings settings, HttpServer server, ExecutorService executor) {
+        this.settings = settings;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts the stand-in on an ephemeral loopback port.
+     */
+    public static GithubApiStandIn start(StandInSettings settings) {
+        return start(settings, 0);
+    }
+
+    public static GithubApiStandIn start(StandInSettings settings, int port) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            // Injected latency sleeps, so each exchange gets its own virtual thread
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            GithubApiStandIn standIn = new GithubApiStandIn(settings, server, executor);
+            server.createContext("/", standIn::handle);
+            server.setExecutor(executor);
+            server.start();
+            return standIn;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to start GitHub stand-in", ex);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public StandInSettings settings() {
+        return settings;
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long responseCount(int status) {
+        AtomicLong count = responsesByStatus.get(status);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            sleep(settings.latency().sample(ThreadLocalRandom.current()));
+
+            if (!"GET".equals(exchange.getRequestMethod()) || !SEARCH_PATH.equals(exchange.getRequestURI().getPath())) {
+                respond(exchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+
+            Map<String, String> params = queryParams(exchange.getRequestURI().getRawQuery());
+            String query = params.getOrDefault("q", "");
+            String sort = params.getOrDefault("sort", "best-match");
+            String order = params.getOrDefault("order", "desc");
+            int page = Math.max(1, parseInt(params.get("page"), 1));
+            int perPage = Math.clamp(parseInt(params.get("per_page"), 30), 1, MAX_PER_PAGE);
+
+            String etag = "\"" + Integer.toHexString(Objects.hash(query, sort, order, page, perPage)) + "\"";
+            String token = Objects.requireNonNullElse(exchange.getRequestHeaders().getFirst("Authorization"), "anonymous");
+            RateWindow window = rateWindows.computeIfAbsent(token, key -> new RateWindow());
+
+            // Like GitHub, a 304 for a matching If-None-Match does not count against the quota
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                window.writeHeaders(exchange, false);
+                exchange.getResponseHeaders().set("ETag", etag);
+                respond(exchange, 304, null);
+                return;
+            }
+            if (!window.writeHeaders(exchange, true)) {
+                respond(exchange, 403, "{\"message\":\"API rate limit exceeded\"}");
+                return;
+            }
+            if (injectFailure(exchange)) {
+                return;
+            }
+            if (query.isBlank()) {
+                respond(exchange, 422, "{\"message\":\"Validation Failed\"}");
+                return;
+            }
+            if ((long) page * perPage > SEARCH_WINDOW) {
+                respond(exchange, 422, "{\"message\":\"Only the first 1000 search results are available\"}");
+                return;
+            }
+
+            int totalCount = totalCount(query);
+            List<GithubRepositoryItemResponse> corpus = sortedCorpus(query, sort, order, totalCount);
+            int from = Math.min(corpus.size(), (page - 1) * perPage);
+            int to = Math.min(corpus.size(), from + perPage);
+
+            exchange.getResponseHeaders().set("ETag", etag);
+            respond(exchange, 200, SyntheticRepositories.searchPageJson(totalCount, false, corpus.subList(from, to)));
+        }
+    }
+
+    private boolean injectFailure(HttpExchange exchange) throws IOException {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < settings.forbiddenRate()) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 403, "{\"message\":\"You have exceeded a secondary rate limit\"}");
+            return true;
+        }
+        roll -= settings.forbiddenRate();
+        if (roll < settings.unprocessableRate()) {
+            respond(exchange, 422, "{\"message\":\"Validation Failed\"}");
+            return true;
+        }
+        roll -= settings.unprocessableRate();
+        if (roll < settings.serverErrorRate()) {
+            respond(exchange, 502, "{\"message\":\"Server Error\"}");
+            return true;
+        }
+        return false;
+    }
+
+    private int totalCount(String query) {
+        return Math.floorMod(query.hashCode(), settings.maxTotalCount() + 1);
+    }
+
+    private List<GithubRepositoryItemResponse> sortedCorpus(String query, String sort, String order, int totalCount) {
+        if (sortedCorpora.size() > MAX_CACHED_CORPORA) {
+            sortedCorpora.clear();
+        }
+        return sortedCorpora.computeIfAbsent(query + '\n' + sort + '\n' + order, key -> {
+            List<GithubRepositoryItemResponse> corpus = SyntheticRepositories.repositories(
+                    Math.min(totalCount, SEARCH_WINDOW), Integer.toUnsignedLong(query.hashCode()));
+            Comparator<GithubRepositoryItemResponse> comparator = switch (sort) {
+                case "stars" -> Comparator.comparingInt(GithubRepositoryItemResponse::stargazersCount);
+                case "forks" -> Comparator.comparingInt(GithubRepositoryItemResponse::forksCount);
+                default -> null;
+            };
+            if (comparator == null) {
+                return List.copyOf(corpus);
+            }
+            return corpus.stream()
+                    .sorted("asc".equals(order) ? comparator : comparator.reversed())
+                    .toList();
+        });
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        responsesByStatus.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value != null ? Integer.parseInt(value) : fallback;
+        } catch (NumberFormatException ex) {
+            return fallback;
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fixed rate-limit window of one token, reported the way GitHub does.
+     */
+    private final class RateWindow {
+        private long resetAtEpochSecond;
+        private int used;
+
+        /**
+         * Writes the {@code X-RateLimit-*} headers, optionally spending one request; returns false when the
+         * window is exhausted.
+         */
+        synchronized boolean writeHeaders(HttpExchange exchange, boolean spend) {
+            long now = Instant.now().getEpochSecond();
+            if (now >= resetAtEpochSecond) {
+                resetAtEpochSecond = now + Math.max(1, settings.rateLimitWindow().toSeconds());
+                used = 0;
+            }
+            boolean allowed = !spend || used < settings.rateLimit();
+            if (spend && allowed) {
+                used++;
+            }
+            exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(settings.rateLimit()));
+            exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(Math.max(0, settings.rateLimit() - used)));
+            exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(resetAtEpochSecond));
+            exchange.getResponseHeaders().set("X-RateLimit-Used", String.valueOf(used));
+            exchange.getResponseHeaders().set("X-RateLimit-Resource", "search");
+            return allowed;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.mmazurovsky.githubreposobserver.standin;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Log-normal response latency described by its median and 99th percentile, the shape real API
+ * latencies tend to have: most calls near the median and a long right tail.
+ */
+public record LatencyDistribution(Duration median, Duration p99) {
+    private static final double Z_99 = 2.326;
+
+    public LatencyDistribution {
+        if (median.isNegative() || p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("Expected 0 <= median <= p99 but got " + median + " and " + p99);
+        }
+    }
+
+    public static LatencyDistribution none() {
+        return new LatencyDistribution(Duration.ZERO, Duration.ZERO);
+    }
+
+    public Duration sample(RandomGenerator random) {
+        if (median.isZero()) {
+            return Duration.ZERO;
+        }
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return Duration.ofNanos(Math.round(median.toNanos() * Math.exp(sigma * random.nextGaussian())));
+    }
+}
@@ -0,0 +1,51 @@
+package com.mmazurovsky.githubreposobserver.standin;
+
+import java.time.Duration;
+
+/**
+ * Behaviour of the {@link GithubApiStandIn}.
+ *
+ * @param maxTotalCount    upper bound of the per-query {@code total_count}; each query gets a stable value below it
+ * @param latency          latency added to every response
+ * @param forbiddenRate    share of requests answered with a secondary-rate-limit 403 and {@code Retry-After}
+ * @param unprocessableRate share of requests answered with 422 Validation Failed
+ * @param serverErrorRate  share of requests answered with 502 Bad Gateway
+ * @param rateLimit        search requests per token per window, reported through the {@code X-RateLimit-*} headers
+ * @param rateLimitWindow  length of the rate-limit window
+ */
+public record StandInSettings(
+        int maxTotalCount,
+        LatencyDistribution latency,
+        double forbiddenRate,
+        double unprocessableRate,
+        double serverErrorRate,
+        int rateLimit,
+        Duration rateLimitWindow
+) {
+    /**
+     * Instant, error-free responses with GitHub's authenticated search quota of 30 requests per minute.
+     */
+    public static StandInSettings defaults() {
+        return new StandInSettings(5_000, LatencyDistribution.none(), 0, 0, 0, 30, Duration.ofMinutes(1));
+    }
+
+    public StandInSettings withMaxTotalCount(int maxTotalCount) {
+        return new StandInSettings(maxTotalCount, latency, forbiddenRate, unprocessableRate, serverErrorRate,
+                rateLimit, rateLimitWindow);
+    }
+
+    public StandInSettings withLatency(LatencyDistribution latency) {
+        return new StandInSettings(maxTotalCount, latency, forbiddenRate, unprocessableRate, serverErrorRate,
+                rateLimit, rateLimitWindow);
+    }
+
+    public StandInSettings withErrorRates(double forbiddenRate, double unprocessableRate, double serverErrorRate) {
+        return new StandInSettings(maxTotalCount, latency, forbiddenRate, unprocessableRate, serverErrorRate,
+                rateLimit, rateLimitWindow);
+    }
+
+    public StandInSettings withRateLimit(int rateLimit, Duration rateLimitWindow) {
+        return new StandInSettings(maxTotalCount, latency, forbiddenRate, unprocessableRate, serverErrorRate,
+                rateLimit, rateLimitWindow);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mmazurovsky.githubreposobserver.standin;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.mmazurovsky.githubreposobserver.dto.external.GithubRepositoryItemResponse;
+
+/**
+ * Deterministic synthetic GitHub repositories shared by the benchmarks and the GitHub stand-in, so runs
+ * are comparable across machines.
+ */
+public final class SyntheticRepositories {
+    private static final int TODAY = (int) LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    private static final String[] LANGUAGES = {"Java", "Kotlin", "Go", "Rust", "TypeScript", null};
+
+    private SyntheticRepositories() {
+    }
+
+    public static List<GithubRepositoryItemResponse> repositories(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<GithubRepositoryItemResponse> repositories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            repositories.add(repository(seed * 1_000_000 + i, random));
+        }
+        return repositories;
+    }
+
+    /**
+     * A search page shaped like GitHub's real payload: every item carries the owner block, license,
+     * topics and URL fields that the scorer never reads.
+     */
+    public static String searchPageJson(int totalCount, boolean incompleteResults, List<GithubRepositoryItemResponse> items) {
+        StringBuilder json = new StringBuilder(items.size() * 2_500 + 64);
+        json.append("{\"total_count\":").append(totalCount)
+                .append(",\"incomplete_results\":").append(incompleteResults)
+                .append(",\"items\":[");
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendItem(json, items.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    private static GithubRepositoryItemResponse repository(long id, SplittableRandom random) {
+        String name = "repo-" + id;
+        return new GithubRepositoryItemResponse(
+                id,
+                name,
+                "owner-" + (id % 97) + "/" + name,
+                "https://github.com/owner-" + (id % 97) + "/" + name,
+                // Heavy-tailed like real star counts
+                (int) Math.min(Integer.MAX_VALUE, Math.pow(random.nextDouble(), 4) * 200_000),
+                (int) (Math.pow(random.nextDouble(), 4) * 40_000),
+                TODAY - random.nextInt(2_000),
+                LANGUAGES[random.nextInt(LANGUAGES.length)],
+                TODAY - 2_000 - random.nextInt(3_000)
+        );
+    }
+
+    private static String timestamp(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay) + "T08:15:30Z";
+    }
+
+    private static void appendItem(StringBuilder json, GithubRepositoryItemResponse item) {
+        String owner = item.fullName().substring(0, item.fullName().indexOf('/'));
+        String apiUrl = "https://api.github.com/repos/" + item.fullName();
+        json.append("{\"id\":").append(item.id())
+                .append(",\"node_id\":\"R_kgDO").append(item.id()).append('"')
+                .append(",\"name\":\"").append(item.name()).append('"')
+                .append(",\"full_name\":\"").append(item.fullName()).append('"')
+                .append(",\"private\":false")
+                .append(",\"owner\":{\"login\":\"").append(owner).append("\",\"id\":").append(item.id() % 97)
+                .append(",\"avatar_url\":\"https://avatars.githubusercontent.com/u/").append(item.id() % 97).append("?v=4\"")
+                .append(",\"url\":\"https://api.github.com/users/").append(owner).append('"')
+                .append(",\"html_url\":\"https://github.com/").append(owner).append('"')
+                .append(",\"followers_url\":\"https://api.github.com/users/").append(owner).append("/followers\"")
+                .append(",\"repos_url\":\"https://api.github.com/users/").append(owner).append("/repos\"")
+                .append(",\"type\":\"User\",\"site_admin\":false}")
+                .append(",\"html_url\":\"").append(item.htmlUrl()).append('"')
+                .append(",\"description\":\"Synthetic repository ").append(item.name())
+                .append(" used for benchmarking the \\\"search\\\" pipeline\"")
+                .append(",\"fork\":false");
+        for (String suffix : new String[] {"forks", "keys", "collaborators", "teams", "hooks", "events", "branches",
+                "tags", "languages", "stargazers", "contributors", "commits", "issues", "pulls", "releases"}) {
+            json.append(",\"").append(suffix).append("_url\":\"").append(apiUrl).append('/').append(suffix).append('"');
+        }
+        json.append(",\"created_at\":\"").append(timestamp(item.createdEpochDay())).append('"')
+                .append(",\"updated_at\":\"").append(timestamp(item.updatedEpochDay())).append('"')
+                .append(",\"pushed_at\":\"").append(timestamp(item.updatedEpochDay())).append('"')
+                .append(",\"size\":").append(item.id() % 10_000)
+                .append(",\"stargazers_count\":").append(item.stargazersCount())
+                .append(",\"watchers_count\":").append(item.stargazersCount())
+                .append(",\"language\":").append(item.language() == null ? "null" : "\"" + item.language() + "\"")
+                .append(",\"forks_count\":").append(item.forksCount())
+                .append(",\"open_issues_count\":").append(item.id() % 50)
+                .append(",\"license\":{\"key\":\"mit\",\"name\":\"MIT License\",\"spdx_id\":\"MIT\",\"url\":\"https://api.github.com/licenses/mit\"}")
+                .append(",\"topics\":[\"spring\",\"reactive\",\"benchmark\"]")
+                .append(",\"visibility\":\"public\",\"default_branch\":\"main\",\"score\":1.0}");
+    }
+}